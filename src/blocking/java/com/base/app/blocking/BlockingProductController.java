@@ -0,0 +1,189 @@
+package com.base.app.blocking;
+
+import com.base.app.codecs.ProductMediaTypes;
+import com.base.app.documents.Product;
+import com.base.app.etags.ProductETags;
+import com.base.app.pagination.ProductPage;
+import com.base.app.pagination.ProductPageRequest;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/products")
+@Profile("blocking")
+public class BlockingProductController {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockingProductController.class);
+
+    @Autowired
+    private BlockingProductService productService;
+
+    @Value("${config.uploads.path}")
+    private String uploadFilesPath;
+
+    @GetMapping()
+    public ResponseEntity<List<Product>> getAllProducts(@RequestHeader HttpHeaders headers, WebRequest request) {
+        MediaType type = ProductMediaTypes.negotiate(headers.getAccept());
+        Optional<String> etag = ProductETags.collection(productService.collectionVersion(), type);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
+        List<Product> products = productService.findAll();
+        products.forEach(p -> {
+            p.setName(p.getName().toUpperCase());
+            log.info(p.getName());
+        });
+        return ResponseEntity
+        .ok()
+        .contentType(type)
+        .headers(responseHeaders -> etag.ifPresent(responseHeaders::setETag))
+        .varyBy(HttpHeaders.ACCEPT)
+        .body(products);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<ProductPage> getProductPage(@RequestParam int limit,
+                                                      @RequestParam(required = false) String sort,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestHeader HttpHeaders headers,
+                                                      WebRequest request) {
+        MediaType type = ProductMediaTypes.negotiate(headers.getAccept());
+        Optional<String> etag = ProductETags.collection(productService.collectionVersion(), type);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
+        try {
+            return ResponseEntity
+            .ok()
+            .contentType(type)
+            .headers(responseHeaders -> etag.ifPresent(responseHeaders::setETag))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(productService.findPage(ProductPageRequest.of(sort, cursor, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Product> getProductById(@PathVariable String id, @RequestHeader HttpHeaders headers) {
+        MediaType type = ProductMediaTypes.negotiate(headers.getAccept());
+        return productService.findById(id).map(p -> ResponseEntity
+        .ok()
+        .contentType(type)
+        .eTag(ProductETags.product(p, type))
+        .varyBy(HttpHeaders.ACCEPT)
+        .body(p)
+        ).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping()
+    public ResponseEntity<Map<String, Object>> createProduct(@Valid @RequestBody Product product, @RequestHeader HttpHeaders headers) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        if (product.getCreateAt() == null) {
+            product.setCreateAt(new Date());
+        }
+        Product p = productService.save(product);
+        response.put("product", p);
+        response.put("message", "Product created successfully.");
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.CREATED.value());
+        return ResponseEntity
+        .created(URI.create("/api/products/".concat(p.getId())))
+        .contentType(ProductMediaTypes.negotiate(headers.getAccept()))
+        .body(response);
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, Object>> invalidProduct(MethodArgumentNotValidException e) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("errors", e.getFieldErrors().stream()
+        .map(fieldError -> "The field " + fieldError.getField() + " " + fieldError.getDefaultMessage())
+        .toList());
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    @PostMapping("v2")
+    public ResponseEntity<Product> createProductWithPicture(Product product, @RequestPart MultipartFile file, @RequestHeader HttpHeaders headers) throws IOException {
+        if (product.getCreateAt() == null) {
+            product.setCreateAt(new Date());
+        }
+        product.setPicture(UUID.randomUUID() + "-" + file.getOriginalFilename()
+        .replace(" ", "")
+        .replace(":", "")
+        .replace("\\", ""));
+
+        log.info("path to save files: ".concat(uploadFilesPath + product.getPicture()));
+
+        file.transferTo(new File(uploadFilesPath + product.getPicture()));
+        Product p = productService.save(product);
+        return ResponseEntity
+        .created(URI.create("/api/products/".concat(p.getId())))
+        .contentType(ProductMediaTypes.negotiate(headers.getAccept()))
+        .body(p);
+    }
+
+    @PostMapping("/upload/{id}")
+    public ResponseEntity<Product> uploadFile(@PathVariable String id, @RequestPart MultipartFile file) throws IOException {
+        Product changes = new Product();
+        changes.setPicture(UUID.randomUUID() + "-" + file.getOriginalFilename()
+        .replace(" ", "")
+        .replace(":", "")
+        .replace("\\", ""));
+        log.info("path to save files: ".concat(uploadFilesPath + changes.getPicture()));
+        File target = new File(uploadFilesPath + changes.getPicture());
+        file.transferTo(target);
+        return productService.update(id, changes)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> {
+            target.delete();
+            return ResponseEntity.notFound().build();
+        });
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Product> editProduct(@RequestBody Product product, @PathVariable String id, @RequestHeader HttpHeaders headers) {
+        Product changes = new Product(product.getName(), product.getPrice(), product.getCategory());
+        changes.setVersion(product.getVersion());
+        try {
+            return productService.update(id, changes).map(p -> ResponseEntity
+            .created(URI.create("/api/products/".concat(p.getId())))
+            .contentType(ProductMediaTypes.negotiate(headers.getAccept()))
+            .body(p)
+            ).orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteProduct(@PathVariable String id) {
+        return productService.deleteById(id)
+        ? new ResponseEntity<Void>(HttpStatus.NO_CONTENT)
+        : new ResponseEntity<Void>(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,266 @@
+package com.base.app.blocking;
+
+import com.base.app.codecs.ProductMediaTypes;
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import com.base.app.etags.ProductETags;
+import com.base.app.pagination.ProductFilter;
+import com.base.app.pagination.ProductPageRequest;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Part;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Component
+@Profile("blocking")
+public class BlockingProductHandler {
+
+    @Autowired
+    private BlockingProductService service;
+
+    @Value("${config.uploads.path}")
+    private String path;
+
+    @Value("${config.batch.max-size:100}")
+    private int maxBatchSize;
+
+    @Autowired
+    private Validator validator;
+
+    public ServerResponse getAllPProducts(ServerRequest request) {
+        MediaType type = ProductMediaTypes.negotiate(request.headers().accept());
+        Optional<String> etag = ProductETags.collection(service.collectionVersion(), type);
+        Optional<ServerResponse> notModified = etag.flatMap(request::checkNotModified);
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+        try {
+            if (request.param("limit").isPresent()) {
+                ProductPageRequest pageRequest = ProductPageRequest.of(
+                getFilter(request),
+                request.param("sort").orElse(null),
+                request.param("cursor").orElse(null),
+                Integer.parseInt(request.param("limit").orElse("")));
+                return ServerResponse.ok().contentType(type).headers(headers -> etag.ifPresent(headers::setETag)).varyBy(HttpHeaders.ACCEPT).body(service.findPage(pageRequest));
+            }
+            if (!hasSearchParams(request)) {
+                return ServerResponse.ok().contentType(type).headers(headers -> etag.ifPresent(headers::setETag)).varyBy(HttpHeaders.ACCEPT).body(service.findAll());
+            }
+            ProductPageRequest search = ProductPageRequest.sortedBy(getFilter(request), request.param("sort").orElse(null));
+            return ServerResponse.ok().contentType(type).headers(headers -> etag.ifPresent(headers::setETag)).varyBy(HttpHeaders.ACCEPT).body(service.search(search));
+        } catch (IllegalArgumentException e) {
+            return badRequest(List.of(e.getMessage()));
+        }
+    }
+
+    public ServerResponse getProductById(ServerRequest request) {
+        MediaType type = ProductMediaTypes.negotiate(request.headers().accept());
+        return service.findById(request.pathVariable("id"))
+        .map(p -> ServerResponse.ok().contentType(type).eTag(ProductETags.product(p, type)).varyBy(HttpHeaders.ACCEPT).body(p))
+        .orElseGet(() -> ServerResponse.notFound().build());
+    }
+
+    public ServerResponse getProductsByIds(ServerRequest request) throws ServletException, IOException {
+        List<String> ids = HttpMethod.GET.equals(request.method())
+        ? request.params().getOrDefault("ids", List.of()).stream().flatMap(value -> Arrays.stream(value.split(","))).toList()
+        : request.body(new ParameterizedTypeReference<List<String>>() {});
+        List<String> requested = (ids == null ? List.<String>of() : ids).stream()
+        .filter(Objects::nonNull)
+        .map(String::trim)
+        .filter(id -> !id.isEmpty())
+        .distinct()
+        .toList();
+        if (requested.isEmpty() || requested.size() > maxBatchSize) {
+            return badRequest(List.of("Between 1 and " + maxBatchSize + " ids are required"));
+        }
+        Map<String, Product> found = new HashMap<>();
+        service.findAllById(requested).forEach(p -> found.put(p.getId(), p));
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("products", requested.stream().filter(found::containsKey).map(found::get).toList());
+        response.put("missing", requested.stream().filter(id -> !found.containsKey(id)).toList());
+        return ServerResponse.ok().contentType(ProductMediaTypes.negotiate(request.headers().accept())).body(response);
+    }
+
+    public ServerResponse create(ServerRequest request) throws ServletException, IOException {
+        Product p = request.body(Product.class);
+        Errors errors = validate(p);
+        if (errors.hasErrors()) {
+            return ServerResponse.badRequest().body(messages(errors));
+        }
+        if (p.getCreateAt() == null) {
+            p.setCreateAt(new Date());
+        }
+        Product pdb = service.save(p);
+        return ServerResponse.created(URI.create("/api/v2/productos/".concat(pdb.getId())))
+        .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+        .body(pdb);
+    }
+
+    public ServerResponse createv2(ServerRequest request) throws ServletException, IOException {
+        Product p = request.body(Product.class);
+        Errors errors = validate(p);
+        if (errors.hasErrors()) {
+            return badRequest(messages(errors));
+        }
+        if (p.getCreateAt() == null) {
+            p.setCreateAt(new Date());
+        }
+        return created(request, service.save(p));
+    }
+
+    public ServerResponse edit(ServerRequest request) throws ServletException, IOException {
+        Product req = request.body(Product.class);
+        Product changes = new Product(req.getName(), req.getPrice(), req.getCategory());
+        changes.setVersion(req.getVersion());
+        return update(request.pathVariable("id"), changes, p -> ServerResponse.created(URI.create("/api/v2/products/".concat(p.getId())))
+        .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+        .body(p));
+    }
+
+    public ServerResponse delete(ServerRequest request) {
+        return service.deleteById(request.pathVariable("id"))
+        ? ServerResponse.noContent().build()
+        : ServerResponse.notFound().build();
+    }
+
+    public ServerResponse upload(ServerRequest request) throws ServletException, IOException {
+        Part file = request.servletRequest().getPart("file");
+        Product changes = new Product();
+        changes.setPicture(pictureName(file));
+        File target = new File(path + changes.getPicture());
+        file.write(target.getAbsolutePath());
+        ServerResponse response = update(request.pathVariable("id"), changes, p -> ServerResponse.created(URI.create("/api/v2/products/".concat(p.getId())))
+        .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+        .body(p));
+        if (response.statusCode().value() == HttpStatus.NOT_FOUND.value()) {
+            target.delete();
+        }
+        return response;
+    }
+
+    public ServerResponse createWithPicture(ServerRequest request) throws ServletException, IOException {
+        Product p = multipartProduct(request);
+        Part file = request.servletRequest().getPart("file");
+        p.setPicture(pictureName(file));
+        p.setCreateAt(new Date());
+        file.write(new File(path + p.getPicture()).getAbsolutePath());
+        Product saved = service.save(p);
+        return ServerResponse.created(URI.create("/api/v2/products/".concat(saved.getId())))
+        .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+        .body(saved);
+    }
+
+    public ServerResponse createWithPicturev2(ServerRequest request) throws ServletException, IOException {
+        Product p = multipartProduct(request);
+        Errors errors = validate(p);
+        if (errors.hasErrors()) {
+            return badRequest(messages(errors));
+        }
+        Part file = request.servletRequest().getPart("file");
+        if (file != null) {
+            p.setPicture(pictureName(file));
+            file.write(new File(path + p.getPicture()).getAbsolutePath());
+        }
+        p.setCreateAt(new Date());
+        return created(request, service.save(p));
+    }
+
+    private ServerResponse update(String id, Product changes, Function<Product, ServerResponse> found) {
+        try {
+            return service.update(id, changes).map(found).orElseGet(() -> ServerResponse.notFound().build());
+        } catch (OptimisticLockingFailureException e) {
+            return ServerResponse.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    private Product multipartProduct(ServerRequest request) {
+        Category category = new Category(request.param("category.name").orElse(null));
+        category.setId(request.param("category.id").orElse(null));
+        Double price = request.param("price").map(value -> {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }).orElse(null);
+        return new Product(request.param("name").orElse(null), price, category);
+    }
+
+    private static String pictureName(Part file) {
+        return UUID.randomUUID().toString() + "-" + file.getSubmittedFileName()
+        .replace(" ", "-")
+        .replace(":", "")
+        .replace("\\", "");
+    }
+
+    private Errors validate(Product product) {
+        Errors errors = new BeanPropertyBindingResult(product, Product.class.getName());
+        validator.validate(product, errors);
+        return errors;
+    }
+
+    private static List<String> messages(Errors errors) {
+        return errors.getFieldErrors().stream()
+        .map(fieldError -> "El campo " + fieldError.getField() + " " + fieldError.getDefaultMessage())
+        .toList();
+    }
+
+    private ServerResponse created(ServerRequest request, Product savedProd) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("product", savedProd);
+        response.put("message", "Product created successfully.");
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.CREATED.value());
+        return ServerResponse.created(URI.create("/api/v2/products/".concat(savedProd.getId())))
+        .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+        .body(response);
+    }
+
+    private ServerResponse badRequest(List<String> errors) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("errors", errors);
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        return ServerResponse.badRequest().body(response);
+    }
+
+    private boolean hasSearchParams(ServerRequest request) {
+        return Stream.of("sort", "minPrice", "maxPrice", "category", "name")
+        .anyMatch(param -> request.param(param).isPresent());
+    }
+
+    private ProductFilter getFilter(ServerRequest request) {
+        return ProductFilter.of(
+        request.param("minPrice").orElse(null),
+        request.param("maxPrice").orElse(null),
+        request.param("category").orElse(null),
+        request.param("name").orElse(null));
+    }
+}
@@ -0,0 +1,109 @@
+package com.base.app.blocking;
+
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import com.base.app.pagination.ProductCursor;
+import com.base.app.pagination.ProductPage;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.repositories.ProductQueries;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Service
+@Profile("blocking")
+public class BlockingProductService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${config.pagination.max-limit:500}")
+    private int maxPageLimit;
+
+    @Value("${config.etags.collection.enabled:false}")
+    private boolean collectionETagsEnabled;
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong collectionVersion = new AtomicLong();
+
+    public List<Product> findAll() {
+        return mongoTemplate.findAll(Product.class);
+    }
+
+    public List<Product> search(ProductPageRequest searchRequest) {
+        return mongoTemplate.find(ProductQueries.search(searchRequest), Product.class);
+    }
+
+    public ProductPage findPage(ProductPageRequest pageRequest) {
+        int size = Math.min(pageRequest.getLimit(), maxPageLimit);
+        List<Product> products = mongoTemplate.find(ProductQueries.search(pageRequest).limit(size + 1), Product.class);
+        if (products.size() <= size) {
+            return new ProductPage(products, null);
+        }
+        List<Product> content = products.subList(0, size);
+        String next = ProductCursor.after(content.get(size - 1), pageRequest.getSortKey(), pageRequest.getDirection()).encode();
+        return new ProductPage(content, next);
+    }
+
+    public Optional<Product> findById(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, Product.class));
+    }
+
+    public List<Product> findAllById(List<String> ids) {
+        return mongoTemplate.find(new Query(where("id").in(ids)), Product.class);
+    }
+
+    public Product save(Product product) {
+        try {
+            return mongoTemplate.save(product);
+        } finally {
+            collectionVersion.incrementAndGet();
+        }
+    }
+
+    public Optional<Product> update(String id, Product changes) {
+        try {
+            return updateFields(id, changes);
+        } finally {
+            collectionVersion.incrementAndGet();
+        }
+    }
+
+    private Optional<Product> updateFields(String id, Product changes) {
+        Product updated = mongoTemplate.findAndModify(ProductQueries.updateTarget(id, changes.getVersion()), ProductQueries.fieldUpdate(changes),
+        FindAndModifyOptions.options().returnNew(true), Product.class);
+        if (updated == null && changes.getVersion() != null && mongoTemplate.exists(new Query(where("id").is(id)), Product.class)) {
+            throw new OptimisticLockingFailureException("Product " + id + " was modified concurrently");
+        }
+        return Optional.ofNullable(updated);
+    }
+
+    public boolean deleteById(String id) {
+        try {
+            return mongoTemplate.remove(new Query(where("id").is(id)), Product.class).getDeletedCount() > 0;
+        } finally {
+            collectionVersion.incrementAndGet();
+        }
+    }
+
+    public List<Category> findAllCategories() {
+        return mongoTemplate.findAll(Category.class);
+    }
+
+    public Optional<String> collectionVersion() {
+        // the counter only sees writes made through this instance
+        return collectionETagsEnabled ? Optional.of(instance + "." + collectionVersion.get()) : Optional.empty();
+    }
+}
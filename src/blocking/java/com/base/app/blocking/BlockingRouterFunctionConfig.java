@@ -0,0 +1,30 @@
+package com.base.app.blocking;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import static org.springframework.web.servlet.function.RequestPredicates.*;
+import static org.springframework.web.servlet.function.RouterFunctions.route;
+
+@Configuration
+@Profile("blocking")
+public class BlockingRouterFunctionConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> blockingRoutes(BlockingProductHandler handler) {
+        return route(GET("/api/v2/products").or(GET("/api/v3/products")), handler::getAllPProducts)
+        .andRoute(GET("/api/v2/products/batch").or(POST("/api/v2/products/batch")), handler::getProductsByIds)
+        .andRoute(GET("/api/v2/products/{id}"), handler::getProductById)
+        .andRoute(POST("/api/v2/products"), handler::create)
+        .andRoute(PUT("/api/v2/products/{id}"), handler::edit)
+        .andRoute(DELETE("/api/v2/products/{id}"), handler::delete)
+        .andRoute(POST("/api/v2/products/upload/{id}"), handler::upload)
+        .andRoute(POST("/api/v2/products/create"), handler::createWithPicture)
+        .andRoute(POST("/api/v2/products/v2"), handler::createv2)
+        .andRoute(POST("/api/v2/products/create/v2"), handler::createWithPicturev2);
+    }
+
+}
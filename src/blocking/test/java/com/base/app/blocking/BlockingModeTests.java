@@ -0,0 +1,57 @@
+package com.base.app.blocking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"config.seed.mode=none", "config.seed.ensure-indexes=false"})
+@AutoConfigureWebTestClient
+@ActiveProfiles("blocking")
+class BlockingModeTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private WebTestClient client;
+
+	@Test
+	void runsOnTheServletStack() {
+		assertInstanceOf(WebApplicationContext.class, context);
+	}
+
+	@Test
+	void rejectsInvalidProductOnFunctionalRoute() {
+		client.post().uri("/api/v2/products/v2")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"name\":\" \",\"price\":null}")
+		.exchange()
+		.expectStatus().isBadRequest()
+		.expectBody().jsonPath("$.errors").isArray();
+	}
+
+	@Test
+	void rejectsInvalidProductOnController() {
+		client.post().uri("/api/products")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"name\":\" \",\"price\":null}")
+		.exchange()
+		.expectStatus().isBadRequest()
+		.expectBody().jsonPath("$.errors").isArray();
+	}
+
+	@Test
+	void rejectsEmptyBatch() {
+		client.get().uri("/api/v2/products/batch")
+		.exchange()
+		.expectStatus().isBadRequest();
+	}
+}
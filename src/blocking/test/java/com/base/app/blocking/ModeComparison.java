@@ -0,0 +1,143 @@
+package com.base.app.blocking;
+
+import com.base.app.Main;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ModeComparison {
+
+    private static final String PRODUCT = "{\"name\":\"Load %d\",\"price\":%d.5,\"category\":{\"id\":\"load\",\"name\":\"load\"}}";
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final int concurrency;
+
+    private final Duration duration;
+
+    ModeComparison(int concurrency, Duration duration) {
+        this.concurrency = concurrency;
+        this.duration = duration;
+    }
+
+    // each mode runs in its own JVM, so neither inherits the other's JIT-compiled codec and driver paths
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1 || !List.of("reactive", "blocking").contains(args[0])) {
+            throw new IllegalArgumentException("usage: ModeComparison reactive|blocking [concurrency] [duration]");
+        }
+        String mode = args[0];
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        Duration duration = args.length > 2 ? Duration.parse(args[2]) : Duration.ofSeconds(30);
+        ModeComparison comparison = new ModeComparison(concurrency, duration);
+        Result result = comparison.run(mode, mode.equals("reactive") ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET);
+        System.out.printf("%n%-10s %10s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        result.print();
+    }
+
+    Result run(String mode, WebApplicationType type) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Main.class)
+        .web(type)
+        .properties(
+        "server.port=0",
+        "spring.main.banner-mode=off",
+        "config.cache.enabled=false",
+        "config.coalescing.enabled=false",
+        "config.admission.enabled=false",
+        "config.tracing.sample-rate=0",
+        "config.warmup.enabled=false",
+        "config.seed.mode=synthetic",
+        "config.seed.drop=true",
+        "logging.level.com.base.app.controllers=warn",
+        "logging.level.com.base.app.blocking=warn"
+        );
+        if (type == WebApplicationType.SERVLET) {
+            builder.profiles("blocking");
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<String> ids = new ArrayList<>();
+            JsonNode page = mapper.readTree(send(HttpRequest.newBuilder(URI.create(base + "/api/v2/products?limit=200")).build()).body());
+            page.get("content").forEach(product -> ids.add(product.get("id").asText()));
+            load(base, ids, WARMUP, new ConcurrentHistogram(3));
+            Histogram histogram = new ConcurrentHistogram(3);
+            AtomicLong errors = load(base, ids, duration, histogram);
+            return new Result(mode, histogram, errors.get(), duration);
+        }
+    }
+
+    private AtomicLong load(String base, List<String> ids, Duration duration, Histogram histogram) throws InterruptedException {
+        AtomicLong counter = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    long i = counter.getAndIncrement();
+                    HttpRequest request = request(base, ids, i);
+                    long start = System.nanoTime();
+                    try {
+                        if (send(request).statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.toMillis() + 60_000, TimeUnit.MILLISECONDS);
+        return errors;
+    }
+
+    private HttpRequest request(String base, List<String> ids, long i) {
+        return switch ((int) (i % 10)) {
+            case 0, 1, 2, 3, 4 -> HttpRequest.newBuilder(URI.create(base + "/api/v2/products/" + ids.get((int) (i % ids.size())))).build();
+            case 5, 6, 7 -> HttpRequest.newBuilder(URI.create(base + "/api/v2/products?limit=20&sort=price,desc")).build();
+            default -> HttpRequest.newBuilder(URI.create(base + "/api/v2/products/v2"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(PRODUCT.formatted(i, i % 1000)))
+            .build();
+        };
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    record Result(String mode, Histogram histogram, long errors, Duration duration) {
+
+        void print() {
+            System.out.printf("%-10s %10.0f %10.2f %10.2f %10.2f %10.2f %8d%n", mode,
+            histogram.getTotalCount() / (duration.toMillis() / 1000.0),
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(95) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getMaxValue() / 1000.0,
+            errors);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.base.app;
 
 
+import com.base.app.handlers.PictureHandler;
 import com.base.app.handlers.ProductHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,8 +17,11 @@ public class RouterFunctionConfig {
     @Bean
     public RouterFunction<ServerResponse> routes(ProductHandler handler) {
         return route(GET("/api/v2/products").or(GET("/api/v3/products")), handler::getAllPProducts)
+        .andRoute(GET("/api/v2/products/batch").or(POST("/api/v2/products/batch")), handler::getProductsByIds)
+        .andRoute(GET("/api/v2/products/export"), handler::exportProducts)
         .andRoute(GET("/api/v2/products/{id}"), handler::getProductById)
         .andRoute(POST("/api/v2/products"), handler::create)
+        .andRoute(POST("/api/v2/products/import"), handler::importProducts)
         .andRoute(PUT("/api/v2/products/{id}"), handler::edit)
         .andRoute(DELETE("/api/v2/products/{id}"), handler::delete)
         .andRoute(POST("/api/v2/products/upload/{id}"), handler::upload)
@@ -26,4 +30,10 @@ public class RouterFunctionConfig {
         .andRoute(POST("/api/v2/products/create/v2"), handler::createWithPicturev2);
     }
 
+    @Bean
+    public RouterFunction<ServerResponse> pictureRoutes(PictureHandler handler) {
+        return route(GET("/api/v2/products/{id}/picture"), handler::getProductPicture)
+        .andRoute(GET("/api/v2/pictures/{first}/{second}/{name}"), handler::getPicture);
+    }
+
 }
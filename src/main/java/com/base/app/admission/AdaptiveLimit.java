@@ -0,0 +1,100 @@
+package com.base.app.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the latency of the requests it admits.
+ * <p>
+ * Each completed request compares its latency with a slowly moving baseline: while the two stay
+ * within {@code tolerance} the limit grows by a queue allowance of {@code sqrt(limit)}, and once
+ * latency climbs above the baseline the limit shrinks proportionally (the gradient). Failed
+ * requests back the limit off multiplicatively, so a struggling downstream is relieved quickly.
+ */
+public class AdaptiveLimit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final double smoothing;
+
+    private final double backoffRatio;
+
+    private final double baselineWeight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    private double baseline;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                         double backoffRatio, int baselineWindow) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= min <= max: " + minLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.baselineWeight = 1.0 / baselineWindow;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long latencyNanos) {
+        int admitted = inFlight.getAndDecrement();
+        synchronized (this) {
+            double sample = Math.max(1, latencyNanos);
+            baseline = baseline == 0 ? sample : baseline + (sample - baseline) * baselineWeight;
+            if (admitted < limit / 2) {
+                // far below the limit the latency says nothing about how much more we could take
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, tolerance * baseline / sample));
+            double estimate = limit * gradient + Math.sqrt(limit);
+            update(limit * (1 - smoothing) + estimate * smoothing);
+        }
+    }
+
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            update(limit * backoffRatio);
+        }
+    }
+
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    private void update(double next) {
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized double getBaseline() {
+        return baseline;
+    }
+}
@@ -0,0 +1,177 @@
+package com.base.app.admission;
+
+import com.base.app.imports.ImportFormat;
+import com.base.app.metrics.RouteMeters;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class AdmissionControlFilter implements WebFilter {
+
+    private static final Set<HttpMethod> READS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private static final MediaType MULTIPART = new MediaType("multipart", "*");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${config.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${config.admission.path-prefix:/api/}")
+    private String pathPrefix;
+
+    @Value("${config.admission.read.initial-limit:64}")
+    private int readInitialLimit;
+
+    @Value("${config.admission.read.max-limit:512}")
+    private int readMaxLimit;
+
+    @Value("${config.admission.write.initial-limit:16}")
+    private int writeInitialLimit;
+
+    @Value("${config.admission.write.max-limit:128}")
+    private int writeMaxLimit;
+
+    @Value("${config.admission.min-limit:4}")
+    private int minLimit;
+
+    @Value("${config.admission.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${config.admission.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${config.admission.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${config.admission.baseline-window:600}")
+    private int baselineWindow;
+
+    @Value("${config.admission.retry-after:1s}")
+    private Duration retryAfter;
+
+    private final Map<String, RouteLimit> limits = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RouteMeters route = exchange.getAttribute(RouteMeters.ATTRIBUTE);
+        if (!enabled || route == null || !route.isKnown()
+        || !exchange.getRequest().getPath().pathWithinApplication().value().startsWith(pathPrefix)) {
+            return chain.filter(exchange);
+        }
+        HttpMethod method = exchange.getRequest().getMethod();
+        RouteLimit routeLimit = limits.computeIfAbsent(method.name() + " " + route.getUri(),
+        key -> newRouteLimit(method, route.getUri()));
+        AdaptiveLimit limit = routeLimit.limit();
+        if (!limit.tryAcquire()) {
+            routeLimit.rejected().increment();
+            return reject(exchange.getResponse(), limit.getLimit());
+        }
+        // the sample ends when the response is committed, so streamed bodies paced by the client do not count
+        boolean sampled = !clientPacedBody(exchange.getRequest());
+        long start = System.nanoTime();
+        AtomicLong committed = new AtomicLong();
+        exchange.getResponse().beforeCommit(() -> Mono.fromRunnable(() -> committed.compareAndSet(0, System.nanoTime())));
+        return chain.filter(exchange)
+        .doFinally(signal -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            if (signal == SignalType.CANCEL) {
+                limit.onIgnored();
+            } else if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                limit.onDropped();
+            } else if (!sampled) {
+                limit.onIgnored();
+            } else {
+                long end = committed.get();
+                limit.onSuccess((end != 0 ? end : System.nanoTime()) - start);
+            }
+        });
+    }
+
+    // uploads and imports are read at the client's pace before the handler can answer
+    private static boolean clientPacedBody(ServerHttpRequest request) {
+        MediaType contentType = request.getHeaders().getContentType();
+        return contentType != null && (MULTIPART.includes(contentType) || ImportFormat.from(contentType).isPresent());
+    }
+
+    private RouteLimit newRouteLimit(HttpMethod method, String uri) {
+        boolean read = READS.contains(method);
+        AdaptiveLimit limit = read
+        ? new AdaptiveLimit(readInitialLimit, minLimit, readMaxLimit, tolerance, smoothing, backoffRatio, baselineWindow)
+        : new AdaptiveLimit(writeInitialLimit, minLimit, writeMaxLimit, tolerance, smoothing, backoffRatio, baselineWindow);
+        String type = read ? "read" : "write";
+        Gauge.builder("admission.limit", limit, AdaptiveLimit::getLimit)
+        .description("Current adaptive concurrency limit of the route")
+        .tags("method", method.name(), "uri", uri, "type", type)
+        .register(meterRegistry);
+        Gauge.builder("admission.inflight", limit, AdaptiveLimit::getInFlight)
+        .description("Requests admitted and still being served by the route")
+        .tags("method", method.name(), "uri", uri, "type", type)
+        .register(meterRegistry);
+        Counter rejected = Counter.builder("admission.rejected")
+        .description("Requests shed because the route was at its concurrency limit")
+        .tags("method", method.name(), "uri", uri, "type", type)
+        .register(meterRegistry);
+        return new RouteLimit(limit, rejected);
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, int limit) {
+        Map<String, Object> body = new HashMap<String, Object>();
+        body.put("errors", List.of("Too many concurrent requests for this route (limit " + limit + "), retry later"));
+        body.put("timestamp", new Date());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+        DataBuffer buffer = response.bufferFactory().wrap(bytes);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    Map<String, RouteLimit> getLimits() {
+        return limits;
+    }
+
+    record RouteLimit(AdaptiveLimit limit, Counter rejected) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.base.app.cache;
+
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${config.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${config.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${config.cache.ttl:5m}")
+    private Duration ttl;
+
+    @Bean
+    public ReactiveCache<String, Product> productCache(MeterRegistry registry) {
+        return create("products", registry);
+    }
+
+    @Bean
+    public ReactiveCache<String, Category> categoryCache(MeterRegistry registry) {
+        return create("categories", registry);
+    }
+
+    private <V> ReactiveCache<String, V> create(String name, MeterRegistry registry) {
+        if (!enabled) {
+            return new NoOpReactiveCache<>();
+        }
+        AsyncCache<String, V> cache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .buildAsync();
+        return new CaffeineReactiveCache<>(CaffeineCacheMetrics.monitor(registry, cache, name));
+    }
+}
@@ -0,0 +1,31 @@
+package com.base.app.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public class CaffeineReactiveCache<K, V> implements ReactiveCache<K, V> {
+
+    private final AsyncCache<K, V> cache;
+
+    public CaffeineReactiveCache(AsyncCache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> loader.apply(k).toFuture()), true);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(value));
+    }
+
+    @Override
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+}
@@ -0,0 +1,21 @@
+package com.base.app.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+public class NoOpReactiveCache<K, V> implements ReactiveCache<K, V> {
+
+    @Override
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return loader.apply(key);
+    }
+
+    @Override
+    public void put(K key, V value) {
+    }
+
+    @Override
+    public void invalidate(K key) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.base.app.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+public interface ReactiveCache<K, V> {
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader);
+
+    public void put(K key, V value);
+
+    public void invalidate(K key);
+
+}
@@ -0,0 +1,53 @@
+package com.base.app.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Lets concurrent callers for the same key share one in-flight {@link Mono}.
+ * The flight is forgotten as soon as it terminates, so nothing is cached afterwards.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+
+    private final Counter executed;
+
+    private final Counter coalesced;
+
+    public SingleFlight(String name, boolean enabled, MeterRegistry registry) {
+        this.enabled = enabled;
+        this.executed = Counter.builder("singleflight.requests").tag("name", name).tag("result", "executed").register(registry);
+        this.coalesced = Counter.builder("singleflight.requests").tag("name", name).tag("result", "coalesced").register(registry);
+        registry.gauge("singleflight.inflight", Tags.of("name", name), inFlight, ConcurrentMap::size);
+    }
+
+    public Mono<V> execute(K key, Function<K, Mono<V>> loader) {
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        return Mono.defer(() -> {
+            AtomicReference<Mono<V>> self = new AtomicReference<>();
+            Mono<V> flight = Mono.defer(() -> loader.apply(key))
+            .doFinally(signal -> inFlight.remove(key, self.get()))
+            .share();
+            self.set(flight);
+            Mono<V> leader = inFlight.putIfAbsent(key, flight);
+            if (leader != null) {
+                coalesced.increment();
+                return leader;
+            }
+            executed.increment();
+            return flight;
+        });
+    }
+}
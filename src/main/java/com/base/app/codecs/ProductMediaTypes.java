@@ -0,0 +1,40 @@
+package com.base.app.codecs;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ProductMediaTypes {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final List<MediaType> PRODUCIBLE = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    private ProductMediaTypes() {
+    }
+
+    public static MediaType negotiate(List<MediaType> accept) {
+        if (accept.isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable = new ArrayList<>(accept);
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType producible : PRODUCIBLE) {
+                if (mediaType.isCompatibleWith(producible) && !excluded(producible, acceptable)) {
+                    return producible;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static boolean excluded(MediaType producible, List<MediaType> acceptable) {
+        return acceptable.stream().anyMatch(mediaType -> mediaType.getQualityValue() == 0 && mediaType.includes(producible));
+    }
+}
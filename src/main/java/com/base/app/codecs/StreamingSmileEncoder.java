@@ -0,0 +1,96 @@
+package com.base.app.codecs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Smile encoder that writes a {@link Flux} as a single Smile array, one item at a time. The base
+ * encoder joins non-streaming lists with JSON text separators, which does not produce a valid Smile
+ * document. All items share one generator, so the header is written once and name back-references
+ * stay valid across the whole array.
+ */
+public class StreamingSmileEncoder extends Jackson2SmileEncoder {
+
+    public StreamingSmileEncoder(ObjectMapper mapper, MimeType... mimeTypes) {
+        super(mapper, mimeTypes);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Flux<?> flux && !getStreamingMediaTypes().contains(mimeType)) {
+            ObjectWriter writer = getObjectMapper().writerFor(getObjectMapper().constructType(elementType.getType()));
+            return Flux.using(() -> new ArrayWriter(getObjectMapper(), writer),
+            array -> Flux.concat(
+            Mono.fromCallable(array::start),
+            flux.map(array::write),
+            Mono.fromCallable(array::end))
+            .map(bufferFactory::wrap),
+            ArrayWriter::close);
+        }
+        return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+    }
+
+    private static final class ArrayWriter {
+
+        private final ByteArrayBuilder bytes = new ByteArrayBuilder();
+
+        private final ObjectWriter writer;
+
+        private final JsonGenerator generator;
+
+        ArrayWriter(ObjectMapper mapper, ObjectWriter writer) throws IOException {
+            this.writer = writer;
+            this.generator = mapper.getFactory().createGenerator(bytes);
+        }
+
+        byte[] start() throws IOException {
+            generator.writeStartArray();
+            return drain();
+        }
+
+        byte[] write(Object value) {
+            try {
+                writer.writeValue(generator, value);
+                return drain();
+            } catch (IOException ex) {
+                throw new EncodingException("Could not write Smile item: " + ex.getMessage(), ex);
+            }
+        }
+
+        byte[] end() throws IOException {
+            generator.writeEndArray();
+            return drain();
+        }
+
+        private byte[] drain() throws IOException {
+            generator.flush();
+            byte[] chunk = bytes.toByteArray();
+            bytes.reset();
+            return chunk;
+        }
+
+        void close() {
+            try {
+                generator.close();
+            } catch (IOException ignored) {
+                // nothing left to emit, the buffered tail of a cancelled array is discarded
+            }
+            bytes.release();
+        }
+    }
+}
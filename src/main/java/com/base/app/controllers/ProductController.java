@@ -1,12 +1,25 @@
 package com.base.app.controllers;
 
+import com.base.app.codecs.ProductMediaTypes;
 import com.base.app.documents.Product;
+import com.base.app.etags.ProductETags;
+import com.base.app.pagination.ProductPage;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.services.InsertQueueFullException;
 import com.base.app.services.ProductService;
+import com.base.app.storage.PictureCollector;
+import com.base.app.thumbnails.ThumbnailGenerator;
+import com.base.app.uploads.MultipartUploadReader;
+import com.base.app.uploads.UploadLimiter;
+import com.base.app.uploads.UploadRejectedException;
+import com.base.app.uploads.UploadTooLargeException;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -16,14 +29,15 @@ import org.springframework.web.bind.support.WebExchangeBindException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.io.File;
 import java.net.URI;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
 
 @RestController
+@Profile("!blocking")
 @RequestMapping("/api/products")
 public class ProductController {
 
@@ -32,11 +46,22 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
-    @Value("${config.uploads.path}")
-    private String uploadFilesPath;
+    @Autowired
+    private MultipartUploadReader uploadReader;
+
+    @Autowired
+    private UploadLimiter uploadLimiter;
+
+    @Autowired
+    private PictureCollector pictureCollector;
+
+    @Autowired
+    private ThumbnailGenerator thumbnails;
 
     @GetMapping()
-    public Mono<ResponseEntity<Flux<Product>>> getAllProducts() {
+    public Mono<ResponseEntity<Flux<Product>>> getAllProducts(@RequestHeader HttpHeaders headers) {
+        MediaType type = ProductMediaTypes.negotiate(headers.getAccept());
+        Optional<String> etag = ProductETags.collection(productService.collectionVersion(), type);
         Flux<Product> products = productService.findAll()
         .map(p -> {
             p.setName(p.getName().toUpperCase());
@@ -46,24 +71,46 @@ public class ProductController {
         return Mono.just(
         ResponseEntity
         .ok()
-        .contentType(MediaType.APPLICATION_JSON)
+        .contentType(type)
+        .headers(responseHeaders -> etag.ifPresent(responseHeaders::setETag))
+        .varyBy(HttpHeaders.ACCEPT)
         .body(products)
         );
     }
 
+    @GetMapping(params = "limit")
+    public Mono<ResponseEntity<Mono<ProductPage>>> getProductPage(@RequestParam int limit,
+                                                                 @RequestParam(required = false) String sort,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestHeader HttpHeaders headers) {
+        MediaType type = ProductMediaTypes.negotiate(headers.getAccept());
+        Optional<String> etag = ProductETags.collection(productService.collectionVersion(), type);
+        return Mono.fromCallable(() -> ProductPageRequest.of(sort, cursor, limit))
+        .map(pageRequest -> ResponseEntity
+        .ok()
+        .contentType(type)
+        .headers(responseHeaders -> etag.ifPresent(responseHeaders::setETag))
+        .varyBy(HttpHeaders.ACCEPT)
+        .body(productService.findPage(pageRequest)))
+        .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<Mono<Product>>> getProductById(@PathVariable String id) {
+    public Mono<ResponseEntity<Mono<Product>>> getProductById(@PathVariable String id, @RequestHeader HttpHeaders headers) {
+        MediaType type = ProductMediaTypes.negotiate(headers.getAccept());
         Mono<Product> product = productService.findById(id);
         return product.map(p -> ResponseEntity
         .ok()
-        .contentType(MediaType.APPLICATION_JSON)
+        .contentType(type)
+        .eTag(ProductETags.product(p, type))
+        .varyBy(HttpHeaders.ACCEPT)
         .body(Mono.just(p))
         ).defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
 
     @PostMapping()
-    public Mono<ResponseEntity<Map<String, Object>>> createProduct(@Valid @RequestBody Mono<Product> monoProduct) {
+    public Mono<ResponseEntity<Map<String, Object>>> createProduct(@Valid @RequestBody Mono<Product> monoProduct, @RequestHeader HttpHeaders headers) {
         Map<String, Object> response = new HashMap<String, Object>();
         return monoProduct.flatMap(product -> {
             if (product.getCreateAt() == null) {
@@ -76,12 +123,11 @@ public class ProductController {
                 response.put("status", HttpStatus.CREATED.value());
                 return ResponseEntity
                 .created(URI.create("/api/products/".concat(p.getId())))
-                .contentType(MediaType.APPLICATION_JSON)
+                .contentType(ProductMediaTypes.negotiate(headers.getAccept()))
                 .body(response);
             });
-        }).onErrorResume(t -> {
-            return Mono.just(t).cast(WebExchangeBindException.class)
-            .flatMap(e -> Mono.just(e.getFieldErrors()))
+        }).onErrorResume(WebExchangeBindException.class, t -> {
+            return Mono.just(t.getFieldErrors())
             .flatMapMany(errors -> Flux.fromIterable(errors))
             .map(fieldError -> "The field " + fieldError.getField() + " " + fieldError.getDefaultMessage())
             .collectList()
@@ -95,22 +141,21 @@ public class ProductController {
     }
 
     @PostMapping("v2")
-    public Mono<ResponseEntity<Mono<Product>>> createProductWithPicture(Product product, @RequestPart FilePart file) {
+    public Mono<ResponseEntity<Mono<Product>>> createProductWithPicture(Product product, @RequestPart FilePart file, @RequestHeader HttpHeaders headers) {
         if (product.getCreateAt() == null) {
             product.setCreateAt(new Date());
         }
-        product.setPicture(UUID.randomUUID() + "-" + file.filename()
-        .replace(" ", "")
-        .replace(":", "")
-        .replace("\\", ""));
-
-        log.info("path to save files: ".concat(uploadFilesPath + product.getPicture()));
-
-        return file.transferTo(new File(uploadFilesPath + product.getPicture()))
-        .then(productService.save(product))
+        return uploadLimiter.limit(uploadReader.store(file.filename(), file.content()))
+        .flatMap(stored -> {
+            log.info("picture stored at: ".concat(stored.file().toString()));
+            product.setPicture(stored.picture());
+            return productService.save(product)
+            .doOnError(e -> pictureCollector.release(stored.picture()))
+            .flatMap(saved -> thumbnails.submit(saved).thenReturn(saved));
+        })
         .map(p -> ResponseEntity
         .created(URI.create("/api/products/".concat(p.getId())))
-        .contentType(MediaType.APPLICATION_JSON)
+        .contentType(ProductMediaTypes.negotiate(headers.getAccept()))
         .body(Mono.just(p))
         );
     }
@@ -118,37 +163,68 @@ public class ProductController {
 
     @PostMapping("/upload/{id}")
     public Mono<ResponseEntity<Mono<Product>>> uploadFile(@PathVariable String id, @RequestPart FilePart file) {
-        return productService.findById(id).flatMap(p -> {
-            p.setPicture(UUID.randomUUID() + "-" + file.filename()
-            .replace(" ", "")
-            .replace(":", "")
-            .replace("\\", ""));
-            log.info("path to save files: ".concat(uploadFilesPath + p.getPicture()));
-            return file.transferTo(new File(uploadFilesPath + p.getPicture()))
-            .then(productService.save(p));
-        }).map(p -> ResponseEntity.ok(Mono.just(p)))
+        return uploadLimiter.limit(uploadReader.store(file.filename(), file.content()))
+        .flatMap(stored -> {
+            log.info("picture stored at: ".concat(stored.file().toString()));
+            Product changes = new Product();
+            changes.setPicture(stored.picture());
+            return productService.update(id, changes)
+            .switchIfEmpty(Mono.fromRunnable(() -> pictureCollector.release(stored.picture())))
+            .doOnError(e -> pictureCollector.release(stored.picture()))
+            .flatMap(updated -> thumbnails.submit(updated).thenReturn(updated));
+        })
+        .map(p -> ResponseEntity.ok(Mono.just(p)))
         .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
-    public Mono<ResponseEntity<Mono<Product>>> editProduct(@RequestBody Product product, @PathVariable String id) {
-        return productService.findById(id).flatMap(p -> {
-            p.setName(product.getName());
-            p.setPrice(product.getPrice());
-            p.setCategory(product.getCategory());
-            return productService.save(p);
-        }).map(p -> ResponseEntity
+    public Mono<ResponseEntity<Mono<Product>>> editProduct(@RequestBody Product product, @PathVariable String id, @RequestHeader HttpHeaders headers) {
+        Product changes = new Product(product.getName(), product.getPrice(), product.getCategory());
+        changes.setVersion(product.getVersion());
+        return productService.update(id, changes).map(p -> ResponseEntity
         .created(URI.create("/api/products/".concat(p.getId())))
-        .contentType(MediaType.APPLICATION_JSON)
+        .contentType(ProductMediaTypes.negotiate(headers.getAccept()))
         .body(Mono.just(p))
-        ).defaultIfEmpty(ResponseEntity.notFound().build());
+        ).defaultIfEmpty(ResponseEntity.notFound().build())
+        .onErrorResume(OptimisticLockingFailureException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()));
     }
 
 
     @DeleteMapping("/{id}")
     public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable String id) {
-        return productService.findById(id).flatMap(p -> {
-            return productService.delete(p).then(Mono.just(new ResponseEntity<Void>(HttpStatus.NO_CONTENT)));
-        }).defaultIfEmpty(new ResponseEntity<Void>(HttpStatus.NOT_FOUND));
+        return productService.deleteById(id).map(deleted -> deleted
+        ? new ResponseEntity<Void>(HttpStatus.NO_CONTENT)
+        : new ResponseEntity<Void>(HttpStatus.NOT_FOUND));
+    }
+
+    @ExceptionHandler(UploadRejectedException.class)
+    public ResponseEntity<Map<String, Object>> uploadRejected(UploadRejectedException e) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("errors", List.of(e.getMessage()));
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(response);
+    }
+
+    @ExceptionHandler(InsertQueueFullException.class)
+    public ResponseEntity<Map<String, Object>> insertRejected(InsertQueueFullException e) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("errors", List.of(e.getMessage()));
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(response);
+    }
+
+    @ExceptionHandler(UploadTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> uploadTooLarge(UploadTooLargeException e) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("errors", List.of(e.getMessage()));
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.PAYLOAD_TOO_LARGE.value());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
     }
 }
@@ -22,6 +22,11 @@ public class Category {
         this.name = name;
     }
 
+    public Category(Category other) {
+        this(other.name);
+        this.id = other.id;
+    }
+
     public String getId() {
         return id;
     }
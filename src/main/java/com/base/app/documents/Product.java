@@ -6,12 +6,25 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Document(collection = "products")
+@CompoundIndexes({
+        @CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "name_id", def = "{'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_id", def = "{'category._id': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_price_id", def = "{'category._id': 1, 'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "category_name_id", def = "{'category._id': 1, 'name': 1, '_id': 1}")
+})
 public class Product {
 
     @Id
@@ -31,8 +44,14 @@ public class Product {
     @Valid
     private Category category;
 
+    @Indexed(sparse = true)
     private String picture;
 
+    private Map<String, String> variants;
+
+    @Version
+    private Long version;
+
     public Product() {
     }
 
@@ -46,10 +65,23 @@ public class Product {
         this.category = category;
     }
 
+    public Product(Product other) {
+        this(other.name, other.price, other.category == null ? null : new Category(other.category));
+        this.id = other.id;
+        this.createAt = other.createAt == null ? null : new Date(other.createAt.getTime());
+        this.picture = other.picture;
+        this.variants = other.variants == null ? null : new LinkedHashMap<>(other.variants);
+        this.version = other.version;
+    }
+
     public String getId() {
         return id;
     }
 
+    public void setId(String id) {
+        this.id = id;
+    }
+
 
     public String getName() {
         return name;
@@ -90,4 +122,20 @@ public class Product {
     public void setPicture(String picture) {
         this.picture = picture;
     }
+
+    public Map<String, String> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(Map<String, String> variants) {
+        this.variants = variants;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
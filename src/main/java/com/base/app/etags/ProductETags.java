@@ -0,0 +1,35 @@
+package com.base.app.etags;
+
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import org.springframework.http.MediaType;
+
+import java.util.Objects;
+import java.util.Optional;
+
+public final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    public static String product(Product product, MediaType representation) {
+        String version = product.getVersion() != null
+        ? "v" + product.getVersion()
+        : "h" + Integer.toHexString(hash(product));
+        return quote(version + "-" + representation.getSubtype());
+    }
+
+    public static Optional<String> collection(Optional<String> collectionVersion, MediaType representation) {
+        return collectionVersion.map(version -> quote("c" + version + "-" + representation.getSubtype()));
+    }
+
+    private static int hash(Product product) {
+        Category category = product.getCategory();
+        return Objects.hash(product.getName(), product.getPrice(), product.getPicture(), product.getVariants(), product.getCreateAt(),
+        category == null ? null : category.getId(), category == null ? null : category.getName());
+    }
+
+    private static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,134 @@
+package com.base.app.exports;
+
+import com.base.app.documents.Product;
+import com.base.app.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class ProductExporter {
+
+    private static final byte[] CSV_HEADER = "id,name,price,createAt,category.id,category.name,picture\n".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${config.export.cursor-batch-size:500}")
+    private int cursorBatchSize;
+
+    @Value("${config.export.limit-rate:256}")
+    private int limitRate;
+
+    @Value("${config.export.chunk-size:32768}")
+    private int chunkSize;
+
+    public Flux<byte[]> export(String afterId, ExportFormat format, boolean gzip) {
+        Flux<byte[]> rows = service.export(afterId, cursorBatchSize)
+        .limitRate(limitRate)
+        .map(product -> format == ExportFormat.CSV ? toCsv(product) : toJson(product));
+        if (format == ExportFormat.CSV) {
+            rows = Flux.just(CSV_HEADER).concatWith(rows);
+        }
+        Flux<byte[]> encoded = rows;
+        return Flux.using(() -> new ChunkWriter(chunkSize, gzip), writer -> encoded
+        .<byte[]>handle((row, sink) -> {
+            byte[] chunk = writer.write(row);
+            if (chunk != null) {
+                sink.next(chunk);
+            }
+        })
+        .concatWith(Mono.fromCallable(writer::finish).filter(chunk -> chunk.length > 0)), ChunkWriter::close);
+    }
+
+    private byte[] toJson(Product product) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(product);
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private byte[] toCsv(Product product) {
+        StringBuilder line = new StringBuilder(128);
+        line.append(csv(product.getId())).append(',')
+        .append(csv(product.getName())).append(',')
+        .append(product.getPrice() == null ? "" : product.getPrice()).append(',')
+        .append(product.getCreateAt() == null ? "" : product.getCreateAt().toInstant()).append(',')
+        .append(csv(product.getCategory() == null ? null : product.getCategory().getId())).append(',')
+        .append(csv(product.getCategory() == null ? null : product.getCategory().getName())).append(',')
+        .append(csv(product.getPicture())).append('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static class ChunkWriter {
+
+        private final int chunkSize;
+
+        private final ByteArrayOutputStream buffer;
+
+        private final OutputStream out;
+
+        ChunkWriter(int chunkSize, boolean gzip) throws IOException {
+            this.chunkSize = chunkSize;
+            this.buffer = new ByteArrayOutputStream(chunkSize + 1024);
+            this.out = gzip ? new GZIPOutputStream(buffer, 8192) : buffer;
+        }
+
+        byte[] write(byte[] row) {
+            try {
+                out.write(row);
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+            return buffer.size() >= chunkSize ? drain() : null;
+        }
+
+        byte[] finish() throws IOException {
+            if (out instanceof GZIPOutputStream gzip) {
+                gzip.finish();
+            }
+            return drain();
+        }
+
+        void close() {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+        }
+
+        private byte[] drain() {
+            byte[] chunk = buffer.toByteArray();
+            buffer.reset();
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.base.app.handlers;
+
+import com.base.app.services.ProductService;
+import com.base.app.storage.OpenFileBudget;
+import com.base.app.storage.PictureStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+
+@Component
+public class PictureHandler {
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private PictureStore store;
+
+    @Autowired
+    private OpenFileBudget openFiles;
+
+    @Value("${config.pictures.max-age:365d}")
+    private Duration maxAge;
+
+    @Value("${config.pictures.buffer-size:65536}")
+    private int bufferSize;
+
+    public Mono<ServerResponse> getProductPicture(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return service.findById(id)
+        .mapNotNull(p -> p.getPicture())
+        .flatMap(picture -> serve(request, picture, CacheControl.noCache()))
+        .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> getPicture(ServerRequest request) {
+        String picture = request.pathVariable("first") + "/" + request.pathVariable("second") + "/" + request.pathVariable("name");
+        if (!store.isBlob(picture) && !store.isVariant(picture)) {
+            return ServerResponse.notFound().build();
+        }
+        return serve(request, picture, CacheControl.maxAge(maxAge).cachePublic().immutable())
+        .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private Mono<ServerResponse> serve(ServerRequest request, String picture, CacheControl cacheControl) {
+        return Mono.fromCallable(() -> store.resolve(picture))
+        .flatMap(path -> Mono.fromCallable(() -> Files.readAttributes(path, BasicFileAttributes.class))
+        .subscribeOn(Schedulers.boundedElastic())
+        .onErrorResume(NoSuchFileException.class, e -> Mono.empty())
+        .flatMap(attributes -> {
+            long length = attributes.size();
+            String etag = etag(picture, attributes);
+            return request.checkNotModified(etag)
+            .switchIfEmpty(Mono.defer(() -> content(request, path, picture, etag, length, cacheControl)));
+        }))
+        .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.notFound().build());
+    }
+
+    private Mono<ServerResponse> content(ServerRequest request, Path path, String picture, String etag, long length, CacheControl cacheControl) {
+        MediaType type = MediaTypeFactory.getMediaType(picture).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        HttpRange range = range(request, etag);
+        if (range == null) {
+            return ServerResponse.ok()
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .contentType(type)
+            .contentLength(length)
+            .body(file(path, 0, length));
+        }
+        long start = rangeStart(range, length);
+        if (start < 0) {
+            return ServerResponse.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+            .build();
+        }
+        long end = range.getRangeEnd(length);
+        return ServerResponse.status(HttpStatus.PARTIAL_CONTENT)
+        .eTag(etag)
+        .cacheControl(cacheControl)
+        .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+        .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length)
+        .contentType(type)
+        .contentLength(end - start + 1)
+        .body(file(path, start, end - start + 1));
+    }
+
+    private HttpRange range(ServerRequest request, String etag) {
+        List<String> header = request.headers().header(HttpHeaders.RANGE);
+        if (header.isEmpty()) {
+            return null;
+        }
+        String ifRange = request.headers().firstHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header.get(0));
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long rangeStart(HttpRange range, long length) {
+        try {
+            long start = range.getRangeStart(length);
+            return start < length ? start : -1;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private String etag(String picture, BasicFileAttributes attributes) {
+        if (store.isBlob(picture)) {
+            String name = picture.substring(picture.lastIndexOf('/') + 1);
+            int dot = name.indexOf('.');
+            return "\"" + (dot < 0 ? name : name.substring(0, dot)) + "\"";
+        }
+        return "\"" + Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-" + Long.toHexString(attributes.size()) + "\"";
+    }
+
+    private BodyInserter<Path, ReactiveHttpOutputMessage> file(Path path, long position, long count) {
+        return (message, context) -> Mono.defer(() -> {
+            if (!openFiles.tryAcquire()) {
+                return reject(message);
+            }
+            Mono<Void> write = message instanceof ZeroCopyHttpOutputMessage zeroCopy
+            ? zeroCopy.writeWith(path, position, count)
+            : message.writeWith(DataBufferUtils.readAsynchronousFileChannel(
+            () -> AsynchronousFileChannel.open(path, StandardOpenOption.READ), position, message.bufferFactory(), bufferSize)
+            .transform(buffers -> DataBufferUtils.takeUntilByteCount(buffers, count)));
+            return write.doFinally(signal -> openFiles.release());
+        });
+    }
+
+    private static Mono<Void> reject(ReactiveHttpOutputMessage message) {
+        if (message instanceof ServerHttpResponse response) {
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            HttpHeaders headers = response.getHeaders();
+            headers.remove(HttpHeaders.CONTENT_RANGE);
+            headers.remove(HttpHeaders.ETAG);
+            headers.setContentLength(0);
+            headers.setCacheControl(CacheControl.noStore());
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return message.setComplete();
+    }
+}
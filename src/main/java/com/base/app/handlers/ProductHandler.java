@@ -1,32 +1,57 @@
 package com.base.app.handlers;
 
 
+import com.base.app.codecs.ProductMediaTypes;
 import com.base.app.documents.Category;
 import com.base.app.documents.Product;
+import com.base.app.etags.ProductETags;
+import com.base.app.exports.ExportFormat;
+import com.base.app.exports.ProductExporter;
+import com.base.app.imports.ImportFormat;
+import com.base.app.imports.ProductImporter;
+import com.base.app.pagination.ProductFilter;
+import com.base.app.pagination.ProductPage;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.services.InsertQueueFullException;
 import com.base.app.services.ProductService;
+import com.base.app.thumbnails.ThumbnailGenerator;
+import com.base.app.tracing.Traces;
+import com.base.app.uploads.MultipartUpload;
+import com.base.app.uploads.MultipartUploadReader;
+import com.base.app.uploads.UploadLimiter;
+import com.base.app.uploads.UploadRejectedException;
+import com.base.app.uploads.UploadTooLargeException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.codec.multipart.FilePart;
-import org.springframework.http.codec.multipart.FormFieldPart;
-import org.springframework.http.codec.multipart.Part;
+import org.springframework.http.codec.multipart.PartEvent;
 import org.springframework.stereotype.Component;
-import org.springframework.util.MultiValueMap;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.io.File;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.springframework.web.reactive.function.BodyInserters.fromValue;
 
@@ -36,33 +61,130 @@ public class ProductHandler {
     @Autowired
     private ProductService service;
 
-    @Value("${config.uploads.path}")
-    private String path;
+    @Value("${config.batch.max-size:100}")
+    private int maxBatchSize;
 
     @Autowired
     private Validator validator;
 
+    @Autowired
+    private ProductImporter importer;
+
+    @Autowired
+    private ProductExporter exporter;
+
+    @Autowired
+    private MultipartUploadReader uploadReader;
+
+    @Autowired
+    private UploadLimiter uploadLimiter;
+
+    @Autowired
+    private ThumbnailGenerator thumbnails;
+
 
     public Mono<ServerResponse> getAllPProducts(ServerRequest request) {
-        return ServerResponse.ok()
-        .contentType(MediaType.APPLICATION_JSON)
-        .body(service.findAll(), Product.class);
+        MediaType type = ProductMediaTypes.negotiate(request.headers().accept());
+        Optional<String> etag = ProductETags.collection(service.collectionVersion(), type);
+        if (request.queryParam("limit").isPresent()) {
+            return getProductPage(request, type, etag);
+        }
+        if (!hasSearchParams(request)) {
+            return ServerResponse.ok()
+            .contentType(type)
+            .headers(headers -> etag.ifPresent(headers::setETag))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(service.findAll(), Product.class);
+        }
+        return Mono.fromCallable(() -> ProductPageRequest.sortedBy(getFilter(request), request.queryParam("sort").orElse(null)))
+        .flatMap(search -> ServerResponse.ok()
+        .contentType(type)
+        .headers(headers -> etag.ifPresent(headers::setETag))
+        .varyBy(HttpHeaders.ACCEPT)
+        .body(service.search(search), Product.class))
+        .onErrorResume(IllegalArgumentException.class, this::badRequest);
+    }
+
+    private Mono<ServerResponse> getProductPage(ServerRequest request, MediaType type, Optional<String> etag) {
+        return Mono.fromCallable(() -> ProductPageRequest.of(
+        getFilter(request),
+        request.queryParam("sort").orElse(null),
+        request.queryParam("cursor").orElse(null),
+        Integer.parseInt(request.queryParam("limit").orElse(""))))
+        .flatMap(pageRequest -> ServerResponse.ok()
+        .contentType(type)
+        .headers(headers -> etag.ifPresent(headers::setETag))
+        .varyBy(HttpHeaders.ACCEPT)
+        .body(service.findPage(pageRequest), ProductPage.class))
+        .onErrorResume(IllegalArgumentException.class, this::badRequest);
+    }
+
+    private boolean hasSearchParams(ServerRequest request) {
+        return Stream.of("sort", "minPrice", "maxPrice", "category", "name")
+        .anyMatch(param -> request.queryParam(param).isPresent());
+    }
+
+    private ProductFilter getFilter(ServerRequest request) {
+        return ProductFilter.of(
+        request.queryParam("minPrice").orElse(null),
+        request.queryParam("maxPrice").orElse(null),
+        request.queryParam("category").orElse(null),
+        request.queryParam("name").orElse(null));
+    }
+
+    private Mono<ServerResponse> badRequest(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("errors", List.of(e.getMessage()));
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        return ServerResponse.badRequest().body(fromValue(response));
     }
 
     public Mono<ServerResponse> getProductById(ServerRequest request) {
         String id = request.pathVariable("id");
+        MediaType type = ProductMediaTypes.negotiate(request.headers().accept());
         return service.findById(id).flatMap(p -> ServerResponse
         .ok()
-        .contentType(MediaType.APPLICATION_JSON)
+        .contentType(type)
+        .eTag(ProductETags.product(p, type))
+        .varyBy(HttpHeaders.ACCEPT)
         .body(fromValue(p)))
         .switchIfEmpty(ServerResponse.notFound().build());
     }
 
+    public Mono<ServerResponse> getProductsByIds(ServerRequest request) {
+        Mono<List<String>> ids = HttpMethod.GET.equals(request.method())
+        ? Mono.just(request.queryParams().getOrDefault("ids", List.of()).stream()
+        .flatMap(value -> Arrays.stream(value.split(",")))
+        .toList())
+        : request.bodyToMono(new ParameterizedTypeReference<List<String>>() {});
+        return ids.defaultIfEmpty(List.of()).flatMap(list -> {
+            Map<String, Object> response = new HashMap<String, Object>();
+            List<String> requested = list.stream()
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .filter(id -> !id.isEmpty())
+            .distinct()
+            .toList();
+            if (requested.isEmpty() || requested.size() > maxBatchSize) {
+                response.put("errors", List.of("Between 1 and " + maxBatchSize + " ids are required"));
+                response.put("timestamp", new Date());
+                response.put("status", HttpStatus.BAD_REQUEST.value());
+                return ServerResponse.badRequest().body(fromValue(response));
+            }
+            return service.findAllById(requested).collectMap(Product::getId).flatMap(found -> {
+                response.put("products", requested.stream().filter(found::containsKey).map(found::get).toList());
+                response.put("missing", requested.stream().filter(id -> !found.containsKey(id)).toList());
+                return ServerResponse.ok()
+                .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+                .body(fromValue(response));
+            });
+        });
+    }
+
     public Mono<ServerResponse> create(ServerRequest request) {
-        Mono<Product> product = request.bodyToMono(Product.class);
-        return product.flatMap(p -> {
-            Errors errors = new BeanPropertyBindingResult(p, Product.class.getName());
-            validator.validate(p, errors);
+        Mono<Product> product = Traces.stage("parse", request.bodyToMono(Product.class));
+        return product.flatMap(p -> validate(p).flatMap(errors -> {
             if (errors.hasErrors()) {
                 return Flux.fromIterable(errors.getFieldErrors())
                 .map(fieldError -> "El campo " + fieldError.getField() + " " + fieldError.getDefaultMessage())
@@ -72,88 +194,150 @@ public class ProductHandler {
                 if (p.getCreateAt() == null) {
                     p.setCreateAt(new Date());
                 }
-                return service.save(p).flatMap(pdb -> ServerResponse
+                return Traces.stage("db.write", service.save(p)).flatMap(pdb -> ServerResponse
                 .created(URI.create("/api/v2/productos/".concat(pdb.getId())))
-                .contentType(MediaType.APPLICATION_JSON)
+                .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
                 .body(fromValue(pdb)));
             }
-        });
+        }))
+        .onErrorResume(InsertQueueFullException.class, this::insertRejected);
+    }
+
+
+    public Mono<ServerResponse> importProducts(ServerRequest request) {
+        Optional<ImportFormat> format = ImportFormat.from(request.headers().contentType().orElse(null));
+        if (format.isEmpty()) {
+            return ServerResponse.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+        return importer.importProducts(request.body(BodyExtractors.toDataBuffers()), format.get())
+        .flatMap(report -> ServerResponse.status(report.isComplete() ? HttpStatus.OK : HttpStatus.PAYLOAD_TOO_LARGE)
+        .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+        .body(fromValue(report)))
+        .onErrorResume(IllegalArgumentException.class, this::badRequest);
+    }
+
+    public Mono<ServerResponse> exportProducts(ServerRequest request) {
+        ExportFormat format;
+        try {
+            format = ExportFormat.from(request.queryParam("format").orElse(null));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
+        }
+        boolean gzip = request.queryParam("gzip").map(Boolean::parseBoolean)
+        .orElseGet(() -> request.headers().header(HttpHeaders.ACCEPT_ENCODING).stream().anyMatch(value -> value.contains("gzip")));
+        DataBufferFactory bufferFactory = request.exchange().getResponse().bufferFactory();
+        Flux<DataBuffer> body = exporter.export(request.queryParam("after").orElse(null), format, gzip)
+        .map(bufferFactory::wrap);
+        ServerResponse.BodyBuilder response = ServerResponse.ok().contentType(format.getMediaType());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(BodyInserters.fromDataBuffers(body));
     }
 
 
     public Mono<ServerResponse> edit(ServerRequest request) {
-        Mono<Product> product = request.bodyToMono(Product.class);
         String id = request.pathVariable("id");
-        Mono<Product> productDb = service.findById(id);
-        return productDb.zipWith(product, (db, req) -> {
-            db.setName(req.getName());
-            db.setPrice(req.getPrice());
-            db.setCategory(req.getCategory());
-            return db;
+        return Traces.stage("parse", request.bodyToMono(Product.class)).flatMap(req -> {
+            Product changes = new Product(req.getName(), req.getPrice(), req.getCategory());
+            changes.setVersion(req.getVersion());
+            return Traces.stage("db.write", service.update(id, changes));
         }).flatMap(p -> ServerResponse.created(URI.create("/api/v2/products/".concat(p.getId())))
-        .contentType(MediaType.APPLICATION_JSON)
-        .body(service.save(p), Product.class))
-        .switchIfEmpty(ServerResponse.notFound().build());
+        .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+        .body(fromValue(p)))
+        .switchIfEmpty(ServerResponse.notFound().build())
+        .onErrorResume(OptimisticLockingFailureException.class, e -> ServerResponse.status(HttpStatus.CONFLICT).build());
 
     }
 
     public Mono<ServerResponse> delete(ServerRequest request) {
         String id = request.pathVariable("id");
-        Mono<Product> productDb = service.findById(id);
-        return productDb.flatMap(p -> service.delete(p).then(ServerResponse.noContent().build()))
-        .switchIfEmpty(ServerResponse.notFound().build());
+        return service.deleteById(id).flatMap(deleted -> deleted
+        ? ServerResponse.noContent().build()
+        : ServerResponse.notFound().build());
     }
 
     public Mono<ServerResponse> createWithPicture(ServerRequest request) {
-        Mono<Product> product = request.multipartData().map(multipart -> {
-            FormFieldPart name = (FormFieldPart) multipart.toSingleValueMap().get("name");
-            FormFieldPart price = (FormFieldPart) multipart.toSingleValueMap().get("price");
-            FormFieldPart categoryId = (FormFieldPart) multipart.toSingleValueMap().get("category.id");
-            FormFieldPart categoryName = (FormFieldPart) multipart.toSingleValueMap().get("category.name");
-            Category category = new Category(categoryName.value());
-            category.setId(categoryId.value());
-            return new Product(name.value(), Double.parseDouble(price.value()), category);
-        });
-
-        return request.multipartData().map(multipart -> multipart.toSingleValueMap().get("file"))
-        .cast(FilePart.class)
-        .flatMap(file -> product
-        .flatMap(p -> {
-            p.setPicture(UUID.randomUUID().toString() + "-" + file.filename()
-            .replace(" ", "-")
-            .replace(":", "")
-            .replace("\\", ""));
+        return uploadLimiter.limit(Traces.stage("parse", uploadReader.read(request.bodyToFlux(PartEvent.class)))
+        .flatMap(upload -> {
+            if (!upload.hasFile()) {
+                return badRequest(new IllegalArgumentException("The file part is required"));
+            }
+            Product p = multipartProduct(upload);
+            p.setPicture(upload.getPicture());
             p.setCreateAt(new Date());
-            return file.transferTo(new File(path + p.getPicture())).then(service.save(p));
-        })).flatMap(p -> ServerResponse.created(URI.create("/api/v2/products/".concat(p.getId())))
-        .contentType(MediaType.APPLICATION_JSON)
-        .body(fromValue(p)));
+            return Traces.stage("db.write", service.save(p))
+            .doOnError(e -> upload.discard())
+            .flatMap(saved -> thumbnails.submit(saved).thenReturn(saved))
+            .flatMap(saved -> ServerResponse.created(URI.create("/api/v2/products/".concat(saved.getId())))
+            .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+            .body(fromValue(saved)));
+        }))
+        .onErrorResume(UploadRejectedException.class, this::uploadRejected)
+        .onErrorResume(UploadTooLargeException.class, this::uploadTooLarge);
     }
 
     public Mono<ServerResponse> upload(ServerRequest request) {
         String id = request.pathVariable("id");
-        return request.multipartData().map(multipart -> multipart.toSingleValueMap().get("file"))
-        .cast(FilePart.class)
-        .flatMap(file -> service.findById(id)
-        .flatMap(p -> {
-            p.setPicture(UUID.randomUUID().toString() + "-" + file.filename()
-            .replace(" ", "-")
-            .replace(":", "")
-            .replace("\\", ""));
-            return file.transferTo(new File(path + p.getPicture())).then(service.save(p));
-        })).flatMap(p -> ServerResponse.created(URI.create("/api/v2/products/".concat(p.getId())))
-        .contentType(MediaType.APPLICATION_JSON)
-        .body(fromValue(p)))
-        .switchIfEmpty(ServerResponse.notFound().build());
+        return uploadLimiter.limit(Traces.stage("parse", uploadReader.read(request.bodyToFlux(PartEvent.class)))
+        .flatMap(upload -> {
+            if (!upload.hasFile()) {
+                return badRequest(new IllegalArgumentException("The file part is required"));
+            }
+            Product changes = new Product();
+            changes.setPicture(upload.getPicture());
+            return Traces.stage("db.write", service.update(id, changes))
+            .doOnError(e -> upload.discard())
+            .switchIfEmpty(Mono.fromRunnable(upload::discard))
+            .flatMap(updated -> thumbnails.submit(updated).thenReturn(updated))
+            .flatMap(p -> ServerResponse.created(URI.create("/api/v2/products/".concat(p.getId())))
+            .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
+            .body(fromValue(p)))
+            .switchIfEmpty(ServerResponse.notFound().build());
+        }))
+        .onErrorResume(UploadRejectedException.class, this::uploadRejected)
+        .onErrorResume(UploadTooLargeException.class, this::uploadTooLarge);
+    }
+
+    private Product multipartProduct(MultipartUpload upload) {
+        Category category = new Category(upload.getField("category.name"));
+        category.setId(upload.getField("category.id"));
+        return new Product(upload.getField("name"), upload.getDoubleField("price"), category);
+    }
+
+    private Mono<ServerResponse> uploadRejected(UploadRejectedException e) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("errors", List.of(e.getMessage()));
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(fromValue(response));
+    }
+
+    private Mono<ServerResponse> insertRejected(InsertQueueFullException e) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("errors", List.of(e.getMessage()));
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(fromValue(response));
+    }
+
+    private Mono<ServerResponse> uploadTooLarge(UploadTooLargeException e) {
+        Map<String, Object> response = new HashMap<String, Object>();
+        response.put("errors", List.of(e.getMessage()));
+        response.put("timestamp", new Date());
+        response.put("status", HttpStatus.PAYLOAD_TOO_LARGE.value());
+        return ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE).body(fromValue(response));
     }
 
 
     public Mono<ServerResponse> createv2(ServerRequest request) {
         Map<String, Object> response = new HashMap<String, Object>();
-        Mono<Product> product = request.bodyToMono(Product.class);
-        return product.flatMap(p -> {
-            Errors errors = new BeanPropertyBindingResult(p, Product.class.getName());
-            validator.validate(p, errors);
+        Mono<Product> product = Traces.stage("parse", request.bodyToMono(Product.class));
+        return product.flatMap(p -> validate(p).flatMap(errors -> {
             if (errors.hasErrors()) {
                 return Flux.fromIterable(errors.getFieldErrors())
                 .map(fieldError -> "El campo " + fieldError.getField() + " " + fieldError.getDefaultMessage())
@@ -168,78 +352,52 @@ public class ProductHandler {
                 if (p.getCreateAt() == null) {
                     p.setCreateAt(new Date());
                 }
-                return service.save(p).flatMap(savedProd -> {
+                return Traces.stage("db.write", service.save(p)).flatMap(savedProd -> {
                     response.put("product", savedProd);
                     response.put("message", "Product created successfully.");
                     response.put("timestamp", new Date());
                     response.put("status", HttpStatus.CREATED.value());
                     return ServerResponse
                     .created(URI.create("/api/v2/products/".concat(savedProd.getId())))
-                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
                     .body(fromValue(response));
                 });
             }
-        });
+        }))
+        .onErrorResume(InsertQueueFullException.class, this::insertRejected);
     }
 
-    public String getMultipartStringValue(MultiValueMap<String, Part> multipart, String key) {
-        try {
-            FormFieldPart part = (FormFieldPart) multipart.toSingleValueMap().get(key);
-            if (part != null) {
-                return part.value();
-            }
-            return null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
-    public Double getMultipartDoubleValue(MultiValueMap<String, Part> multipart, String key) {
-        try {
-            FormFieldPart part = (FormFieldPart) multipart.toSingleValueMap().get(key);
-            if (part != null) {
-                return Double.parseDouble(part.value());
-            }
-            return null;
-        } catch (Exception e) {
-            return null;
-        }
+    private Mono<Errors> validate(Product product) {
+        return Traces.stage("validate", Mono.fromSupplier(() -> {
+            Errors errors = new BeanPropertyBindingResult(product, Product.class.getName());
+            validator.validate(product, errors);
+            return errors;
+        }));
     }
 
     public Mono<ServerResponse> createWithPicturev2(ServerRequest request) {
         Map<String, Object> response = new HashMap<String, Object>();
-        Mono<Product> product = request.multipartData().map(multipart -> {
-            String name = getMultipartStringValue(multipart, "name");
-            Double price = getMultipartDoubleValue(multipart, "price");
-            String categoryId = getMultipartStringValue(multipart, "category.id");
-            String categoryName = getMultipartStringValue(multipart, "category.name");
-            Category category = new Category(categoryName);
-            category.setId(categoryId);
-            return new Product(name, price, category);
-        });
-        return product.flatMap(p -> {
-            Errors errors = new BeanPropertyBindingResult(p, Product.class.getName());
-            validator.validate(p, errors);
-            if (errors.hasErrors()) {
-                return Flux.fromIterable(errors.getFieldErrors())
-                .map(fieldError -> "El campo " + fieldError.getField() + " " + fieldError.getDefaultMessage())
-                .collectList()
-                .flatMap(list -> {
-                    response.put("errors", list);
-                    response.put("timestamp", new Date());
-                    response.put("status", HttpStatus.BAD_REQUEST.value());
-                    return ServerResponse.badRequest().body(fromValue(response));
-                });
-            } else {
-                return request.multipartData().map(multipart -> multipart.toSingleValueMap().get("file"))
-                .cast(FilePart.class)
-                .flatMap(file -> {
-                    p.setPicture(UUID.randomUUID().toString() + "-" + file.filename()
-                    .replace(" ", "-")
-                    .replace(":", "")
-                    .replace("\\", ""));
-                    p.setCreateAt(new Date());
-                    return file.transferTo(new File(path + p.getPicture()));
-                }).then(service.save(p))
+        return uploadLimiter.limit(Traces.stage("parse", uploadReader.read(request.bodyToFlux(PartEvent.class)))
+        .flatMap(upload -> {
+            Product p = multipartProduct(upload);
+            return validate(p).flatMap(errors -> {
+                if (errors.hasErrors()) {
+                    upload.discard();
+                    return Flux.fromIterable(errors.getFieldErrors())
+                    .map(fieldError -> "El campo " + fieldError.getField() + " " + fieldError.getDefaultMessage())
+                    .collectList()
+                    .flatMap(list -> {
+                        response.put("errors", list);
+                        response.put("timestamp", new Date());
+                        response.put("status", HttpStatus.BAD_REQUEST.value());
+                        return ServerResponse.badRequest().body(fromValue(response));
+                    });
+                }
+                p.setPicture(upload.getPicture());
+                p.setCreateAt(new Date());
+                return Traces.stage("db.write", service.save(p))
+                .doOnError(e -> upload.discard())
+                .flatMap(saved -> thumbnails.submit(saved).thenReturn(saved))
                 .flatMap(savedProd -> {
                     response.put("product", savedProd);
                     response.put("message", "Product created successfully.");
@@ -247,13 +405,13 @@ public class ProductHandler {
                     response.put("status", HttpStatus.CREATED.value());
                     return ServerResponse
                     .created(URI.create("/api/v2/products/".concat(savedProd.getId())))
-                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentType(ProductMediaTypes.negotiate(request.headers().accept()))
                     .body(fromValue(response));
                 });
-            }
-        });
-
-
+            });
+        }))
+        .onErrorResume(UploadRejectedException.class, this::uploadRejected)
+        .onErrorResume(UploadTooLargeException.class, this::uploadTooLarge);
     }
 
 }
@@ -0,0 +1,26 @@
+package com.base.app.imports;
+
+import org.springframework.http.MediaType;
+
+import java.util.Optional;
+
+public enum ImportFormat {
+
+    NDJSON,
+    CSV;
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    public static Optional<ImportFormat> from(MediaType contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        if (TEXT_CSV.isCompatibleWith(contentType)) {
+            return Optional.of(CSV);
+        }
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            return Optional.of(NDJSON);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,95 @@
+package com.base.app.imports;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ImportReport {
+
+    private final int maxReportedErrors;
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong received = new AtomicLong();
+
+    private final AtomicLong inserted = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    private volatile RowError terminalError;
+
+    private long elapsedMillis;
+
+    public ImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    void received() {
+        received.incrementAndGet();
+    }
+
+    void inserted(long count) {
+        inserted.addAndGet(count);
+    }
+
+    void rejected(long line, List<String> messages) {
+        rejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, messages));
+            }
+        }
+    }
+
+    void terminated(long line, String message) {
+        terminalError = new RowError(line, List.of(message));
+    }
+
+    ImportReport finish() {
+        elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        return this;
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getInserted() {
+        return inserted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? received.get() : received.get() * 1000.0 / elapsedMillis;
+    }
+
+    public boolean isErrorsTruncated() {
+        return rejected.get() > maxReportedErrors;
+    }
+
+    public boolean isComplete() {
+        return terminalError == null;
+    }
+
+    public RowError getTerminalError() {
+        return terminalError;
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    public record RowError(long line, List<String> messages) {
+    }
+}
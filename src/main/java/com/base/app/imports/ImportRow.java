@@ -0,0 +1,20 @@
+package com.base.app.imports;
+
+import com.base.app.documents.Product;
+
+import java.util.List;
+
+record ImportRow(long line, Product product, List<String> errors) {
+
+    static ImportRow valid(long line, Product product) {
+        return new ImportRow(line, product, List.of());
+    }
+
+    static ImportRow invalid(long line, List<String> errors) {
+        return new ImportRow(line, null, errors);
+    }
+
+    boolean isValid() {
+        return errors.isEmpty();
+    }
+}
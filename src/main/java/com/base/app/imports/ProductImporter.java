@@ -0,0 +1,187 @@
+package com.base.app.imports;
+
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import com.base.app.services.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ProductImporter {
+
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "price", "category.id", "category.name");
+
+    private final StringDecoder lineDecoder = StringDecoder.allMimeTypes();
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${config.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${config.import.validation-parallelism:4}")
+    private int validationParallelism;
+
+    @Value("${config.import.write-concurrency:2}")
+    private int writeConcurrency;
+
+    @Value("${config.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public Mono<ImportReport> importProducts(Flux<DataBuffer> body, ImportFormat format) {
+        ImportReport report = new ImportReport(maxReportedErrors);
+        AtomicLong decoded = new AtomicLong();
+        Flux<Tuple2<Long, String>> lines = lineDecoder.decode(body, STRING_TYPE, null, null)
+        .index((index, line) -> Tuples.of(index + 1, line))
+        .doOnNext(line -> decoded.set(line.getT1()))
+        // batches before the overlong line may already be written, so the import ends there with what it did
+        .onErrorResume(DataBufferLimitException.class, e -> Mono.fromRunnable(() -> report.terminated(decoded.get() + 1,
+        "Import lines must not be longer than " + lineDecoder.getMaxInMemorySize() + " bytes")))
+        .filter(line -> !line.getT2().isBlank());
+        Flux<ImportRow> rows = format == ImportFormat.CSV ? parseCsv(lines) : parse(lines, line -> parseJson(line.getT2()));
+        return rows
+        .doOnNext(row -> {
+            report.received();
+            if (!row.isValid()) {
+                report.rejected(row.line(), row.errors());
+            }
+        })
+        .filter(ImportRow::isValid)
+        .buffer(batchSize)
+        .flatMap(batch -> write(batch, report), writeConcurrency)
+        .then(Mono.fromCallable(report::finish));
+    }
+
+    private Flux<ImportRow> parseCsv(Flux<Tuple2<Long, String>> lines) {
+        return lines.switchOnFirst((first, all) -> {
+            if (!first.hasValue()) {
+                return all.thenMany(Flux.empty());
+            }
+            List<String> header = splitCsv(first.get().getT2()).stream().map(String::trim).toList();
+            if (!header.containsAll(CSV_COLUMNS)) {
+                return Flux.error(new IllegalArgumentException("CSV header must contain the columns " + CSV_COLUMNS));
+            }
+            return parse(all.skip(1), line -> parseCsv(header, line.getT2()));
+        });
+    }
+
+    private Flux<ImportRow> parse(Flux<Tuple2<Long, String>> lines, ProductParser parser) {
+        return lines.flatMapSequential(line -> Mono.fromCallable(() -> toRow(line.getT1(), () -> parser.parse(line)))
+        .subscribeOn(Schedulers.parallel()), validationParallelism);
+    }
+
+    private ImportRow toRow(long line, Callable<Product> parser) {
+        Product product;
+        try {
+            product = parser.call();
+        } catch (JsonProcessingException e) {
+            return ImportRow.invalid(line, List.of("Unreadable row: " + e.getOriginalMessage()));
+        } catch (Exception e) {
+            return ImportRow.invalid(line, List.of("Unreadable row: " + e.getMessage()));
+        }
+        Errors errors = new BeanPropertyBindingResult(product, Product.class.getName());
+        validator.validate(product, errors);
+        if (errors.hasErrors()) {
+            return ImportRow.invalid(line, errors.getFieldErrors().stream()
+            .map(fieldError -> "The field " + fieldError.getField() + " " + fieldError.getDefaultMessage())
+            .toList());
+        }
+        if (product.getCreateAt() == null) {
+            product.setCreateAt(new Date());
+        }
+        product.setVersion(null);
+        return ImportRow.valid(line, product);
+    }
+
+    private Mono<Void> write(List<ImportRow> batch, ImportReport report) {
+        List<Product> products = batch.stream().map(ImportRow::product).toList();
+        return service.insertAll(products).doOnNext(result -> {
+            report.inserted(result.inserted());
+            result.failures().forEach((index, message) -> report.rejected(batch.get(index).line(), List.of(message)));
+        }).then();
+    }
+
+    private Product parseJson(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, Product.class);
+    }
+
+    private Product parseCsv(List<String> header, String line) {
+        List<String> values = splitCsv(line);
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            row.put(header.get(i), values.get(i).isEmpty() ? null : values.get(i));
+        }
+        String price = row.get("price");
+        Product product = new Product(row.get("name"), price == null ? null : Double.parseDouble(price));
+        if (row.get("category.id") != null || row.get("category.name") != null) {
+            Category category = new Category(row.get("category.name"));
+            category.setId(row.get("category.id"));
+            product.setCategory(category);
+        }
+        return product;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c != '\r') {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface ProductParser {
+        Product parse(Tuple2<Long, String> line) throws Exception;
+    }
+}
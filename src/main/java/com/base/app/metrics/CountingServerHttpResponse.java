@@ -0,0 +1,51 @@
+package com.base.app.metrics;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+
+class CountingServerHttpResponse extends ServerHttpResponseDecorator implements ZeroCopyHttpOutputMessage {
+
+    private static final int FILE_BUFFER_SIZE = 8192;
+
+    private volatile long bytes;
+
+    CountingServerHttpResponse(ServerHttpResponse delegate) {
+        super(delegate);
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return super.writeWith(Flux.from(body).doOnNext(this::count));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.from(chunk).doOnNext(this::count)));
+    }
+
+    @Override
+    public Mono<Void> writeWith(Path file, long position, long count) {
+        if (getDelegate() instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+            bytes += count;
+            return zeroCopy.writeWith(file, position, count);
+        }
+        Flux<DataBuffer> content = DataBufferUtils.read(file, bufferFactory(), FILE_BUFFER_SIZE);
+        return writeWith(DataBufferUtils.takeUntilByteCount(DataBufferUtils.skipUntilByteCount(content, position), count));
+    }
+
+    private void count(DataBuffer buffer) {
+        bytes += buffer.readableByteCount();
+    }
+}
@@ -0,0 +1,26 @@
+package com.base.app.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class MongoMetricsConfig {
+
+    @Value("${config.mongo.slow-query.threshold:100ms}")
+    private Duration slowQueryThreshold;
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoDiagnostics(MeterRegistry registry) {
+        return settings -> {
+            settings.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(new MongoPoolWaitListener(registry)));
+            if (!slowQueryThreshold.isZero() && !slowQueryThreshold.isNegative()) {
+                settings.addCommandListener(new MongoSlowCommandListener(slowQueryThreshold));
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.base.app.metrics;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+public class MongoPoolWaitListener implements ConnectionPoolListener {
+
+    private final MeterRegistry registry;
+
+    public MongoPoolWaitListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        wait(event.getConnectionId().getServerId().getAddress().toString(), "success")
+        .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        String server = event.getServerId().getAddress().toString();
+        wait(server, "failed").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        Counter.builder("mongodb.driver.pool.checkout.failures")
+        .description("Connection checkouts that failed, by reason")
+        .tags("server.address", server, "reason", event.getReason().name().toLowerCase())
+        .register(registry)
+        .increment();
+    }
+
+    private Timer wait(String server, String outcome) {
+        return Timer.builder("mongodb.driver.pool.wait")
+        .description("Time spent waiting to check a connection out of the pool")
+        .tags("server.address", server, "outcome", outcome)
+        .register(registry);
+    }
+}
@@ -0,0 +1,132 @@
+package com.base.app.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class MongoSlowCommandListener implements CommandListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoSlowCommandListener.class);
+
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+
+    private static final Map<String, String> FILTER_FIELDS = Map.of(
+    "find", "filter",
+    "aggregate", "pipeline",
+    "count", "query",
+    "distinct", "query",
+    "findAndModify", "query",
+    "delete", "deletes",
+    "update", "updates"
+    );
+
+    private static final String INSERT = "insert";
+
+    private final long thresholdNanos;
+
+    private final Map<Integer, StartedCommand> started = new ConcurrentHashMap<>();
+
+    public MongoSlowCommandListener(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String field = FILTER_FIELDS.get(event.getCommandName());
+        boolean insert = INSERT.equals(event.getCommandName());
+        if (field == null && !insert && !"getMore".equals(event.getCommandName())) {
+            return;
+        }
+        BsonDocument command = event.getCommand();
+        String collection = collection(event.getCommandName(), command);
+        started.put(event.getRequestId(), new StartedCommand(collection, insert ? inserted(command) : "filter " + filter(command, field)));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        StartedCommand command = started.remove(event.getRequestId());
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (command != null && elapsed >= thresholdNanos) {
+            log.warn("Slow mongo {} on {}.{} took {} ms, {}, docs returned {}",
+            event.getCommandName(), event.getDatabaseName(), command.collection(),
+            TimeUnit.NANOSECONDS.toMillis(elapsed), command.detail(), returned(event.getResponse()));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        StartedCommand command = started.remove(event.getRequestId());
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (command != null && elapsed >= thresholdNanos) {
+            log.warn("Slow mongo {} on {}.{} failed after {} ms, {}: {}",
+            event.getCommandName(), event.getDatabaseName(), command.collection(),
+            TimeUnit.NANOSECONDS.toMillis(elapsed), command.detail(), event.getThrowable().getMessage());
+        }
+    }
+
+    private static String filter(BsonDocument command, String field) {
+        String shape = field != null ? shape(command.get(field)).toString() : "{}";
+        BsonValue sort = command.get("sort");
+        if (sort != null) {
+            shape += " sort " + sort.asDocument().toJson();
+        }
+        return shape;
+    }
+
+    // document bodies are never logged, only how many went into the batch
+    static String inserted(BsonDocument command) {
+        BsonValue documents = command.get("documents");
+        int count = documents != null && documents.isArray() ? documents.asArray().size() : 0;
+        boolean ordered = !command.containsKey("ordered") || command.getBoolean("ordered").getValue();
+        return "documents " + count + (ordered ? ", ordered" : ", unordered");
+    }
+
+    static BsonValue shape(BsonValue value) {
+        if (value == null) {
+            return new BsonDocument();
+        }
+        if (value.isDocument()) {
+            BsonDocument shaped = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> shaped.put(key, shape(nested)));
+            return shaped;
+        }
+        if (value.isArray() && value.asArray().stream().anyMatch(BsonValue::isDocument)) {
+            BsonArray shaped = new BsonArray();
+            value.asArray().forEach(nested -> shaped.add(shape(nested)));
+            return shaped;
+        }
+        return PLACEHOLDER;
+    }
+
+    static long returned(BsonDocument response) {
+        BsonDocument cursor = response.getDocument("cursor", null);
+        if (cursor != null) {
+            BsonValue batch = cursor.containsKey("firstBatch") ? cursor.get("firstBatch") : cursor.get("nextBatch");
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        if (response.isNumber("n")) {
+            return response.getNumber("n").longValue();
+        }
+        return response.containsKey("value") && !response.isNull("value") ? 1 : 0;
+    }
+
+    private static String collection(String commandName, BsonDocument command) {
+        BsonValue collection = "getMore".equals(commandName) ? command.get("collection") : command.get(commandName);
+        return collection != null && collection.isString() ? collection.asString().getValue() : "?";
+    }
+
+    private record StartedCommand(String collection, String detail) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.base.app.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RouteMeters {
+
+    public static final String ATTRIBUTE = RouteMeters.class.getName() + ".route";
+
+    static final String UNKNOWN = "UNKNOWN";
+
+    private final HttpMethod method;
+
+    private final PathPattern pattern;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final DistributionSummary responseSize;
+
+    RouteMeters(HttpMethod method, PathPattern pattern, MeterRegistry registry) {
+        this.method = method;
+        this.pattern = pattern;
+        String uri = pattern != null ? pattern.getPatternString() : UNKNOWN;
+        String methodTag = method != null ? method.name() : "*";
+        Gauge.builder("http.server.route.inflight", inFlight, AtomicInteger::get)
+        .description("Requests currently being served by the route")
+        .tags("method", methodTag, "uri", uri)
+        .register(registry);
+        this.responseSize = DistributionSummary.builder("http.server.route.response.size")
+        .description("Response body size written by the route")
+        .baseUnit("bytes")
+        .tags("method", methodTag, "uri", uri)
+        .register(registry);
+    }
+
+    boolean matches(HttpMethod requestMethod, PathContainer path) {
+        return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+    }
+
+    PathPattern getPattern() {
+        return pattern;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return pattern != null ? pattern.getPatternString() : UNKNOWN;
+    }
+
+    public boolean isKnown() {
+        return pattern != null;
+    }
+
+    void begin() {
+        inFlight.incrementAndGet();
+    }
+
+    void end(long bytes) {
+        inFlight.decrementAndGet();
+        responseSize.record(bytes);
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+}
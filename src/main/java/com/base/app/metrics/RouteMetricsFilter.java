@@ -0,0 +1,57 @@
+package com.base.app.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Component
+@Lazy(false)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RouteMetricsFilter implements WebFilter, SmartInitializingSingleton {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private ObjectProvider<RouterFunction<?>> routerFunctions;
+
+    @Autowired
+    private ObjectProvider<RequestMappingHandlerMapping> requestMappings;
+
+    private volatile RouteTemplates templates;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RouteTemplates.Builder builder = RouteTemplates.builder(registry);
+        routerFunctions.orderedStream().forEach(builder::routerFunction);
+        requestMappings.orderedStream().forEach(mapping -> builder.requestMappings(mapping.getHandlerMethods().keySet()));
+        templates = builder.build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        RouteTemplates templates = this.templates;
+        if (templates == null) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        RouteMeters route = templates.match(request.getMethod(), request.getPath().pathWithinApplication());
+        exchange.getAttributes().put(RouteMeters.ATTRIBUTE, route);
+        CountingServerHttpResponse response = new CountingServerHttpResponse(exchange.getResponse());
+        route.begin();
+        return chain.filter(exchange.mutate().response(response).build())
+        .doFinally(signal -> route.end(response.getBytes()));
+    }
+}
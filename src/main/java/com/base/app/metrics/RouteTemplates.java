@@ -0,0 +1,205 @@
+package com.base.app.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+public class RouteTemplates {
+
+    private final RouteMeters[] routes;
+
+    private final RouteMeters unknown;
+
+    private RouteTemplates(List<RouteMeters> routes, RouteMeters unknown) {
+        this.routes = routes.toArray(new RouteMeters[0]);
+        this.unknown = unknown;
+    }
+
+    public RouteMeters match(HttpMethod method, PathContainer path) {
+        for (RouteMeters route : routes) {
+            if (route.matches(method, path)) {
+                return route;
+            }
+        }
+        return unknown;
+    }
+
+    public static Builder builder(MeterRegistry registry) {
+        return new Builder(registry);
+    }
+
+    public static class Builder {
+
+        private final MeterRegistry registry;
+
+        private final PathPatternParser parser = PathPatternParser.defaultInstance;
+
+        private final Map<String, RouteMeters> routes = new LinkedHashMap<>();
+
+        private Builder(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        public Builder routerFunction(RouterFunction<?> routerFunction) {
+            routerFunction.accept(new RouteCollector());
+            return this;
+        }
+
+        public Builder requestMappings(Collection<RequestMappingInfo> mappings) {
+            for (RequestMappingInfo mapping : mappings) {
+                Set<RequestMethod> methods = mapping.getMethodsCondition().getMethods();
+                for (PathPattern pattern : mapping.getPatternsCondition().getPatterns()) {
+                    if (methods.isEmpty()) {
+                        add(null, pattern.getPatternString());
+                    }
+                    for (RequestMethod method : methods) {
+                        add(method.asHttpMethod(), pattern.getPatternString());
+                    }
+                }
+            }
+            return this;
+        }
+
+        public Builder add(HttpMethod method, String pattern) {
+            routes.computeIfAbsent((method != null ? method.name() : "*") + " " + pattern,
+            key -> new RouteMeters(method, parser.parse(pattern), registry));
+            return this;
+        }
+
+        public RouteTemplates build() {
+            List<RouteMeters> sorted = new ArrayList<>(routes.values());
+            sorted.sort(Comparator.comparing(RouteMeters::getPattern, PathPattern.SPECIFICITY_COMPARATOR));
+            return new RouteTemplates(sorted, new RouteMeters(null, null, registry));
+        }
+
+        private class RouteCollector implements RouterFunctions.Visitor, RequestPredicates.Visitor {
+
+            private final List<String> prefixes = new ArrayList<>();
+
+            private Set<HttpMethod> methods = Set.of();
+
+            private boolean nesting;
+
+            @Override
+            public void startNested(RequestPredicate predicate) {
+                nesting = true;
+                prefixes.add("");
+                predicate.accept(this);
+                nesting = false;
+            }
+
+            @Override
+            public void endNested(RequestPredicate predicate) {
+                prefixes.remove(prefixes.size() - 1);
+            }
+
+            @Override
+            public void route(RequestPredicate predicate, HandlerFunction<?> handlerFunction) {
+                methods = Set.of();
+                predicate.accept(this);
+            }
+
+            @Override
+            public void resources(Function<ServerRequest, Mono<Resource>> lookupFunction) {
+            }
+
+            @Override
+            public void attributes(Map<String, Object> attributes) {
+            }
+
+            @Override
+            public void unknown(RouterFunction<?> routerFunction) {
+            }
+
+            @Override
+            public void method(Set<HttpMethod> methods) {
+                this.methods = methods;
+            }
+
+            @Override
+            public void path(String pattern) {
+                if (nesting) {
+                    prefixes.set(prefixes.size() - 1, pattern);
+                    return;
+                }
+                String path = String.join("", prefixes) + pattern;
+                if (methods.isEmpty()) {
+                    add(null, path);
+                }
+                for (HttpMethod method : methods) {
+                    add(method, path);
+                }
+            }
+
+            @Override
+            public void pathExtension(String extension) {
+            }
+
+            @Override
+            public void header(String name, String value) {
+            }
+
+            @Override
+            public void queryParam(String name, String value) {
+            }
+
+            @Override
+            public void startAnd() {
+            }
+
+            @Override
+            public void and() {
+            }
+
+            @Override
+            public void endAnd() {
+            }
+
+            @Override
+            public void startOr() {
+            }
+
+            @Override
+            public void or() {
+                methods = Set.of();
+            }
+
+            @Override
+            public void endOr() {
+            }
+
+            @Override
+            public void startNegate() {
+            }
+
+            @Override
+            public void endNegate() {
+            }
+
+            @Override
+            public void unknown(RequestPredicate predicate) {
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.base.app.pagination;
+
+import com.base.app.documents.Product;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class ProductCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final ProductSortKey sortKey;
+
+    private final Sort.Direction direction;
+
+    private final String lastId;
+
+    private final String lastValue;
+
+    public ProductCursor(ProductSortKey sortKey, Sort.Direction direction, String lastId, String lastValue) {
+        this.sortKey = sortKey;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    public static ProductCursor after(Product product, ProductSortKey sortKey, Sort.Direction direction) {
+        return new ProductCursor(sortKey, direction, product.getId(), sortKey.valueOf(product));
+    }
+
+    public static ProductCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        // a cursor without a value part was taken on a document whose sort key is null
+        String[] parts = raw.split(SEPARATOR, 4);
+        if (parts.length < 3 || parts[2].isEmpty()) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        ProductSortKey sortKey = ProductSortKey.from(parts[0]);
+        Sort.Direction direction = Sort.Direction.fromString(parts[1]);
+        String lastValue = parts.length == 4 ? parts[3] : null;
+        if (sortKey == ProductSortKey.ID && lastValue == null) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (sortKey == ProductSortKey.PRICE && lastValue != null) {
+            Double.parseDouble(lastValue);
+        }
+        return new ProductCursor(sortKey, direction, parts[2], lastValue);
+    }
+
+    public String encode() {
+        String raw = sortKey.getProperty() + SEPARATOR + direction.name() + SEPARATOR + lastId
+        + (lastValue == null ? "" : SEPARATOR + lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ProductSortKey getSortKey() {
+        return sortKey;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public String getLastId() {
+        return lastId;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    public Double getLastPrice() {
+        return lastValue == null ? null : Double.valueOf(lastValue);
+    }
+}
@@ -0,0 +1,68 @@
+package com.base.app.pagination;
+
+public class ProductFilter {
+
+    private static final ProductFilter NONE = new ProductFilter(null, null, null, null);
+
+    private final Double minPrice;
+
+    private final Double maxPrice;
+
+    private final String categoryId;
+
+    private final String namePrefix;
+
+    public ProductFilter(Double minPrice, Double maxPrice, String categoryId, String namePrefix) {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice should be equal or lower than maxPrice");
+        }
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.categoryId = categoryId == null || categoryId.isBlank() ? null : categoryId;
+        this.namePrefix = namePrefix == null || namePrefix.isEmpty() ? null : namePrefix;
+    }
+
+    public static ProductFilter none() {
+        return NONE;
+    }
+
+    public static ProductFilter of(String minPrice, String maxPrice, String categoryId, String namePrefix) {
+        return new ProductFilter(parsePrice(minPrice), parsePrice(maxPrice), categoryId, namePrefix);
+    }
+
+    private static Double parsePrice(String price) {
+        if (price == null || price.isBlank()) {
+            return null;
+        }
+        try {
+            return Double.valueOf(price);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price: " + price);
+        }
+    }
+
+    public boolean isEmpty() {
+        return minPrice == null && maxPrice == null && categoryId == null && namePrefix == null;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    @Override
+    public String toString() {
+        return minPrice + ":" + maxPrice + ":" + categoryId + ":" + namePrefix;
+    }
+}
@@ -0,0 +1,25 @@
+package com.base.app.pagination;
+
+import com.base.app.documents.Product;
+
+import java.util.List;
+
+public class ProductPage {
+
+    private final List<Product> content;
+
+    private final String next;
+
+    public ProductPage(List<Product> content, String next) {
+        this.content = content;
+        this.next = next;
+    }
+
+    public List<Product> getContent() {
+        return content;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
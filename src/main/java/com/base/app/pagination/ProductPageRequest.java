@@ -0,0 +1,83 @@
+package com.base.app.pagination;
+
+import org.springframework.data.domain.Sort;
+
+public class ProductPageRequest {
+
+    private final ProductFilter filter;
+
+    private final ProductSortKey sortKey;
+
+    private final Sort.Direction direction;
+
+    private final ProductCursor cursor;
+
+    private final int limit;
+
+    private ProductPageRequest(ProductFilter filter, ProductSortKey sortKey, Sort.Direction direction, ProductCursor cursor, int limit) {
+        this.filter = filter;
+        this.sortKey = sortKey;
+        this.direction = direction;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+
+    public static ProductPageRequest of(String sort, String cursor, int limit) {
+        return of(ProductFilter.none(), sort, cursor, limit);
+    }
+
+    public static ProductPageRequest of(ProductFilter filter, String sort, String cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit should be equal or greater than one");
+        }
+        ProductPageRequest sorted = sortedBy(filter, sort);
+        if (cursor == null || cursor.isBlank()) {
+            return new ProductPageRequest(filter, sorted.sortKey, sorted.direction, null, limit);
+        }
+        ProductCursor after = ProductCursor.decode(cursor);
+        if (sort != null && !sort.isBlank() && (after.getSortKey() != sorted.sortKey || after.getDirection() != sorted.direction)) {
+            throw new IllegalArgumentException("cursor was issued for a different sort");
+        }
+        return new ProductPageRequest(filter, after.getSortKey(), after.getDirection(), after, limit);
+    }
+
+    public static ProductPageRequest sortedBy(ProductFilter filter, String sort) {
+        ProductSortKey sortKey = ProductSortKey.ID;
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            sortKey = ProductSortKey.from(parts[0].trim());
+            if (parts.length > 1) {
+                direction = Sort.Direction.fromString(parts[1].trim());
+            }
+        }
+        return new ProductPageRequest(filter, sortKey, direction, null, Integer.MAX_VALUE);
+    }
+
+    public ProductFilter getFilter() {
+        return filter;
+    }
+
+    public ProductSortKey getSortKey() {
+        return sortKey;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public ProductCursor getCursor() {
+        return cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Sort toSort() {
+        if (sortKey == ProductSortKey.ID) {
+            return Sort.by(direction, ProductSortKey.ID.getProperty());
+        }
+        return Sort.by(direction, sortKey.getProperty(), ProductSortKey.ID.getProperty());
+    }
+}
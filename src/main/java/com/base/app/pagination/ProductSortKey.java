@@ -0,0 +1,39 @@
+package com.base.app.pagination;
+
+import com.base.app.documents.Product;
+
+import java.util.Locale;
+
+public enum ProductSortKey {
+
+    ID("id"),
+    NAME("name"),
+    PRICE("price");
+
+    private final String property;
+
+    ProductSortKey(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String valueOf(Product product) {
+        return switch (this) {
+            case ID -> product.getId();
+            case NAME -> product.getName();
+            case PRICE -> product.getPrice() == null ? null : String.valueOf(product.getPrice());
+        };
+    }
+
+    public static ProductSortKey from(String property) {
+        for (ProductSortKey key : values()) {
+            if (key.property.equals(property.toLowerCase(Locale.ROOT))) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort property: " + property);
+    }
+}
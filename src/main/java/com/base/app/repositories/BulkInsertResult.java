@@ -0,0 +1,6 @@
+package com.base.app.repositories;
+
+import java.util.Map;
+
+public record BulkInsertResult(long inserted, Map<Integer, String> failures) {
+}
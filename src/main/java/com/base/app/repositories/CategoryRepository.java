@@ -1,9 +1,10 @@
 package com.base.app.repositories;
 
 import com.base.app.documents.Category;
-import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
 
-public interface CategoryRepository extends ReactiveMongoRepository<Category, String> {
+public interface CategoryRepository extends ReactiveSortingRepository<Category, String>, ReactiveCrudRepository<Category, String> {
 
 }
 
@@ -0,0 +1,42 @@
+package com.base.app.repositories;
+
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@Profile("!inmemory")
+public class MongoIndexInitializer implements StorageInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> dropAll() {
+        return Mono.when(mongoTemplate.dropCollection(Product.class), mongoTemplate.dropCollection(Category.class));
+    }
+
+    @Override
+    public Mono<Void> ensureIndexes() {
+        return Flux.just(Product.class, Category.class)
+        .concatMap(this::ensureIndexes)
+        .then();
+    }
+
+    private Flux<String> ensureIndexes(Class<?> documentType) {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        return Flux.fromIterable(resolver.resolveIndexFor(documentType))
+        .concatMap(index -> mongoTemplate.indexOps(documentType).ensureIndex(index))
+        .doOnNext(name -> log.info("Index ensured on " + documentType.getSimpleName() + ": " + name));
+    }
+}
@@ -0,0 +1,132 @@
+package com.base.app.repositories;
+
+import com.base.app.documents.Product;
+import com.base.app.pagination.ProductCursor;
+import com.base.app.pagination.ProductFilter;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.pagination.ProductSortKey;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public final class ProductQueries {
+
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private ProductQueries() {
+    }
+
+    public static Query search(ProductPageRequest request) {
+        ProductFilter filter = request.getFilter();
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getMinPrice() != null) {
+            criteria.add(where("price").gte(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            criteria.add(where("price").lte(filter.getMaxPrice()));
+        }
+        if (filter.getCategoryId() != null) {
+            criteria.add(where("category.id").is(filter.getCategoryId()));
+        }
+        if (filter.getNamePrefix() != null) {
+            criteria.add(where("name").regex("^" + escapeRegex(filter.getNamePrefix())));
+        }
+        if (request.getCursor() != null) {
+            criteria.add(after(request));
+        }
+        Query query = criteria.isEmpty() ? new Query() : new Query(new Criteria().andOperator(criteria));
+        return query.with(request.toSort());
+    }
+
+    public static Query updateTarget(String id, Long version) {
+        Criteria criteria = where("id").is(id);
+        if (version != null) {
+            criteria = criteria.and("version").is(version);
+        }
+        return new Query(criteria);
+    }
+
+    public static Update fieldUpdate(Product changes) {
+        Update update = new Update().inc("version", 1);
+        if (changes.getName() != null) {
+            update.set("name", changes.getName());
+        }
+        if (changes.getPrice() != null) {
+            update.set("price", changes.getPrice());
+        }
+        if (changes.getCategory() != null) {
+            update.set("category", changes.getCategory());
+        }
+        if (changes.getPicture() != null) {
+            update.set("picture", changes.getPicture());
+            update.unset("variants");
+        }
+        return update;
+    }
+
+    public static Product applyFieldUpdate(Product existing, Product changes) {
+        Product updated = new Product(existing);
+        if (changes.getName() != null) {
+            updated.setName(changes.getName());
+        }
+        if (changes.getPrice() != null) {
+            updated.setPrice(changes.getPrice());
+        }
+        if (changes.getCategory() != null) {
+            updated.setCategory(changes.getCategory());
+        }
+        if (changes.getPicture() != null) {
+            updated.setPicture(changes.getPicture());
+            updated.setVariants(null);
+        }
+        updated.setVersion(existing.getVersion() == null ? 1L : existing.getVersion() + 1);
+        return updated;
+    }
+
+    public static Query variantsTarget(String id, String picture) {
+        return new Query(where("id").is(id).and("picture").is(picture));
+    }
+
+    public static Update variantsUpdate(Map<String, String> variants) {
+        return new Update().inc("version", 1).set("variants", variants);
+    }
+
+    private static Criteria after(ProductPageRequest request) {
+        ProductCursor cursor = request.getCursor();
+        boolean ascending = request.getDirection().isAscending();
+        Criteria afterId = ascending ? where("id").gt(cursor.getLastId()) : where("id").lt(cursor.getLastId());
+        if (request.getSortKey() == ProductSortKey.ID) {
+            return afterId;
+        }
+        Object value = request.getSortKey() == ProductSortKey.PRICE ? cursor.getLastPrice() : cursor.getLastValue();
+        String property = request.getSortKey().getProperty();
+        Criteria sameValue = ascending
+        ? where(property).is(value).and("id").gt(cursor.getLastId())
+        : where(property).is(value).and("id").lt(cursor.getLastId());
+        // null keys sort before every value, so they open an ascending listing and close a descending one
+        if (value == null) {
+            return ascending ? new Criteria().orOperator(sameValue, where(property).ne(null)) : sameValue;
+        }
+        if (ascending) {
+            return new Criteria().orOperator(where(property).gt(value), sameValue);
+        }
+        return new Criteria().orOperator(where(property).lt(value), sameValue, where(property).is(null));
+    }
+
+    static String escapeRegex(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (char c : value.toCharArray()) {
+            if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -1,9 +1,27 @@
 package com.base.app.repositories;
 
 import com.base.app.documents.Product;
-import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-public interface ProductRepository extends ReactiveMongoRepository<Product, String> {
+public interface ProductRepository extends ReactiveSortingRepository<Product, String>, ReactiveCrudRepository<Product, String>, ProductRepositoryCustom {
 
-}
+    public Mono<Product> removeById(String id);
+
+    public Mono<Long> countByPicture(String picture);
+
+    public Flux<Product> findAllBy(Sort sort, Limit limit);
+
+    public Flux<Product> findByIdGreaterThan(String id, Sort sort, Limit limit);
 
+    public Flux<Product> findByIdLessThan(String id, Sort sort, Limit limit);
+
+    public Flux<Product> findByPriceGreaterThanOrPriceAndIdGreaterThan(Double price, Double samePrice, String id, Sort sort, Limit limit);
+
+    public Flux<Product> findByNameGreaterThanOrNameAndIdGreaterThan(String name, String sameName, String id, Sort sort, Limit limit);
+
+}
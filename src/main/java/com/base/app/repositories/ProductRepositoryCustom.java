@@ -0,0 +1,25 @@
+package com.base.app.repositories;
+
+import com.base.app.documents.Product;
+import com.base.app.pagination.ProductPageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    public Mono<Product> updateFields(String id, Product changes);
+
+    public Mono<Product> updateFieldsReturningPrevious(String id, Product changes);
+
+    public Mono<BulkInsertResult> insertUnordered(List<Product> products);
+
+    public Flux<Product> scanAfter(String afterId, int batchSize);
+
+    public Flux<Product> search(ProductPageRequest request, int limit);
+
+    public Mono<Boolean> updateVariants(String id, String picture, Map<String, String> variants);
+
+}
@@ -0,0 +1,95 @@
+package com.base.app.repositories;
+
+import com.base.app.documents.Product;
+import com.base.app.pagination.ProductPageRequest;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Product> updateFields(String id, Product changes) {
+        return mongoTemplate.findAndModify(ProductQueries.updateTarget(id, changes.getVersion()), ProductQueries.fieldUpdate(changes),
+        FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    @Override
+    public Mono<Product> updateFieldsReturningPrevious(String id, Product changes) {
+        return mongoTemplate.findAndModify(ProductQueries.updateTarget(id, changes.getVersion()), ProductQueries.fieldUpdate(changes),
+        FindAndModifyOptions.options().returnNew(false), Product.class);
+    }
+
+    @Override
+    public Mono<BulkInsertResult> insertUnordered(List<Product> products) {
+        if (products.isEmpty()) {
+            return Mono.just(new BulkInsertResult(0, Map.of()));
+        }
+        for (Product product : products) {
+            if (product.getId() == null) {
+                product.setId(new ObjectId().toHexString());
+            }
+            if (product.getVersion() == null) {
+                product.setVersion(0L);
+            }
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)
+        .insert(products)
+        .execute()
+        .map(result -> new BulkInsertResult(result.getInsertedCount(), Map.of()))
+        .onErrorResume(e -> bulkWriteException(e) != null, e -> {
+            MongoBulkWriteException bulkError = bulkWriteException(e);
+            Map<Integer, String> failures = new HashMap<>();
+            for (BulkWriteError error : bulkError.getWriteErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+            return Mono.just(new BulkInsertResult(bulkError.getWriteResult().getInsertedCount(), failures));
+        });
+    }
+
+    @Override
+    public Flux<Product> scanAfter(String afterId, int batchSize) {
+        Query query = new Query(afterId == null ? new Criteria() : where("id").gt(afterId))
+        .with(Sort.by("id"))
+        .cursorBatchSize(batchSize);
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    @Override
+    public Flux<Product> search(ProductPageRequest request, int limit) {
+        return mongoTemplate.find(ProductQueries.search(request).limit(limit), Product.class);
+    }
+
+    @Override
+    public Mono<Boolean> updateVariants(String id, String picture, Map<String, String> variants) {
+        return mongoTemplate.updateFirst(ProductQueries.variantsTarget(id, picture), ProductQueries.variantsUpdate(variants), Product.class)
+        .map(result -> result.getModifiedCount() > 0);
+    }
+
+    private static MongoBulkWriteException bulkWriteException(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof MongoBulkWriteException bulkError) {
+                return bulkError;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.base.app.repositories;
+
+import reactor.core.publisher.Mono;
+
+public interface StorageInitializer {
+
+    public Mono<Void> dropAll();
+
+    public Mono<Void> ensureIndexes();
+
+}
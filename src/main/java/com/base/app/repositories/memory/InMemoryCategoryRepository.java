@@ -0,0 +1,39 @@
+package com.base.app.repositories.memory;
+
+import com.base.app.documents.Category;
+import com.base.app.repositories.CategoryRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryCategoryRepository extends InMemoryRepository<Category> implements CategoryRepository {
+
+    @Override
+    protected String getId(Category category) {
+        return category.getId();
+    }
+
+    @Override
+    protected void setId(Category category, String id) {
+        category.setId(id);
+    }
+
+    @Override
+    protected Category copy(Category category) {
+        return new Category(category);
+    }
+
+    @Override
+    protected Comparator<Category> comparator(Sort.Order order) {
+        Comparator<Category> comparator = switch (order.getProperty()) {
+            case "id" -> Comparator.comparing(Category::getId);
+            case "name" -> Comparator.comparing(Category::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+            default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+        };
+        return order.isAscending() ? comparator : comparator.reversed();
+    }
+}
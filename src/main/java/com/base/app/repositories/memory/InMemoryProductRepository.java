@@ -0,0 +1,300 @@
+package com.base.app.repositories.memory;
+
+import com.base.app.documents.Product;
+import com.base.app.pagination.ProductCursor;
+import com.base.app.pagination.ProductFilter;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.repositories.BulkInsertResult;
+import com.base.app.repositories.ProductQueries;
+import com.base.app.repositories.ProductRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryProductRepository extends InMemoryRepository<Product> implements ProductRepository {
+
+    private final SortedIndex<Double> byPrice = new SortedIndex<>();
+
+    private final SortedIndex<String> byName = new SortedIndex<>();
+
+    private final SortedIndex<String> byCategory = new SortedIndex<>();
+
+    private final Map<String, Long> pictureReferences = new ConcurrentHashMap<>();
+
+    @Override
+    protected String getId(Product product) {
+        return product.getId();
+    }
+
+    @Override
+    protected void setId(Product product, String id) {
+        product.setId(id);
+    }
+
+    @Override
+    protected Product copy(Product product) {
+        return new Product(product);
+    }
+
+    @Override
+    protected Comparator<Product> comparator(Sort.Order order) {
+        Comparator<Product> comparator = switch (order.getProperty()) {
+            case "id" -> Comparator.comparing(Product::getId);
+            case "name" -> Comparator.comparing(Product::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "price" -> Comparator.comparing(Product::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "createAt" -> Comparator.comparing(Product::getCreateAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+            default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+        };
+        return order.isAscending() ? comparator : comparator.reversed();
+    }
+
+    @Override
+    protected void beforeSave(Product existing, Product product, boolean insert) {
+        if (insert) {
+            if (product.getVersion() == null) {
+                product.setVersion(0L);
+            }
+            return;
+        }
+        if (product.getVersion() == null) {
+            if (existing != null) {
+                throw new DuplicateKeyException("E11000 duplicate key error dup key: { _id: \"" + product.getId() + "\" }");
+            }
+            product.setVersion(0L);
+            return;
+        }
+        if (existing == null || !product.getVersion().equals(existing.getVersion())) {
+            throw new OptimisticLockingFailureException("Product " + product.getId() + " was modified concurrently");
+        }
+        product.setVersion(product.getVersion() + 1);
+    }
+
+    @Override
+    protected void indexed(Product previous, Product current) {
+        if (previous != null) {
+            byPrice.remove(previous.getPrice(), previous.getId());
+            byName.remove(previous.getName(), previous.getId());
+            byCategory.remove(categoryId(previous), previous.getId());
+            if (previous.getPicture() != null) {
+                pictureReferences.computeIfPresent(previous.getPicture(), (picture, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+        if (current != null) {
+            byPrice.add(current.getPrice(), current.getId());
+            byName.add(current.getName(), current.getId());
+            byCategory.add(categoryId(current), current.getId());
+            if (current.getPicture() != null) {
+                pictureReferences.merge(current.getPicture(), 1L, Long::sum);
+            }
+        }
+    }
+
+    @Override
+    public Mono<Product> removeById(String id) {
+        return Mono.fromSupplier(() -> remove(id));
+    }
+
+    @Override
+    public Mono<Long> countByPicture(String picture) {
+        return Mono.fromSupplier(() -> pictureReferences.getOrDefault(picture, 0L));
+    }
+
+    @Override
+    public Flux<Product> findAllBy(Sort sort, Limit limit) {
+        Sort.Order order = sort.iterator().hasNext() ? sort.iterator().next() : Sort.Order.asc("id");
+        return switch (order.getProperty()) {
+            case "id" -> scan(order.isAscending() ? primary.keySet() : primary.descendingKeySet(), product -> true, limit);
+            case "price" -> scan(order.isAscending() ? byPrice.ascending() : byPrice.descending(), Product::getPrice, entry -> true, product -> true, limit);
+            case "name" -> scan(order.isAscending() ? byName.ascending() : byName.descending(), Product::getName, entry -> true, product -> true, limit);
+            default -> findAll(sort).take(limit.isLimited() ? limit.max() : Long.MAX_VALUE);
+        };
+    }
+
+    @Override
+    public Flux<Product> findByIdGreaterThan(String id, Sort sort, Limit limit) {
+        return scan(primary.tailMap(id, false).keySet(), product -> true, limit);
+    }
+
+    @Override
+    public Flux<Product> findByIdLessThan(String id, Sort sort, Limit limit) {
+        return scan(primary.headMap(id, false).descendingKeySet(), product -> true, limit);
+    }
+
+    @Override
+    public Flux<Product> findByPriceGreaterThanOrPriceAndIdGreaterThan(Double price, Double samePrice, String id, Sort sort, Limit limit) {
+        return scan(byPrice.after(price, id, false), Product::getPrice, entry -> true, product -> true, limit);
+    }
+
+    @Override
+    public Flux<Product> findByNameGreaterThanOrNameAndIdGreaterThan(String name, String sameName, String id, Sort sort, Limit limit) {
+        return scan(byName.after(name, id, false), Product::getName, entry -> true, product -> true, limit);
+    }
+
+    @Override
+    public Mono<Product> updateFields(String id, Product changes) {
+        return Mono.fromSupplier(() -> {
+            Product[] versions = swapFields(id, changes);
+            return versions == null ? null : copy(versions[1]);
+        });
+    }
+
+    @Override
+    public Mono<Product> updateFieldsReturningPrevious(String id, Product changes) {
+        return Mono.fromSupplier(() -> {
+            Product[] versions = swapFields(id, changes);
+            return versions == null ? null : copy(versions[0]);
+        });
+    }
+
+    private Product[] swapFields(String id, Product changes) {
+        synchronized (lock(id)) {
+            Product existing = primary.get(id);
+            if (existing == null || (changes.getVersion() != null && !changes.getVersion().equals(existing.getVersion()))) {
+                return null;
+            }
+            Product updated = ProductQueries.applyFieldUpdate(existing, changes);
+            primary.put(id, updated);
+            indexed(existing, updated);
+            return new Product[]{existing, updated};
+        }
+    }
+
+    @Override
+    public Mono<Boolean> updateVariants(String id, String picture, Map<String, String> variants) {
+        return Mono.fromSupplier(() -> {
+            synchronized (lock(id)) {
+                Product existing = primary.get(id);
+                if (existing == null || !Objects.equals(existing.getPicture(), picture)) {
+                    return false;
+                }
+                Product updated = copy(existing);
+                updated.setVariants(new LinkedHashMap<>(variants));
+                updated.setVersion(existing.getVersion() == null ? 1L : existing.getVersion() + 1);
+                primary.put(id, updated);
+                indexed(existing, updated);
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public Mono<BulkInsertResult> insertUnordered(List<Product> products) {
+        return Mono.fromSupplier(() -> {
+            long inserted = 0;
+            Map<Integer, String> failures = new HashMap<>();
+            for (int i = 0; i < products.size(); i++) {
+                try {
+                    write(products.get(i), true);
+                    inserted++;
+                } catch (DuplicateKeyException e) {
+                    failures.put(i, e.getMessage());
+                }
+            }
+            return new BulkInsertResult(inserted, failures);
+        });
+    }
+
+    @Override
+    public Flux<Product> scanAfter(String afterId, int batchSize) {
+        return Flux.defer(() -> stream((afterId == null ? primary : primary.tailMap(afterId, false)).values()));
+    }
+
+    @Override
+    public Flux<Product> search(ProductPageRequest request, int limit) {
+        ProductFilter filter = request.getFilter();
+        ProductCursor cursor = request.getCursor();
+        boolean ascending = request.getDirection().isAscending();
+        Predicate<Product> matches = product -> matches(filter, product);
+        Limit max = limit > 0 ? Limit.of(limit) : Limit.unlimited();
+        return switch (request.getSortKey()) {
+            case ID -> {
+                String category = filter.getCategoryId();
+                if (category == null) {
+                    yield scan(cursor == null
+                    ? (ascending ? primary.keySet() : primary.descendingKeySet())
+                    : (ascending ? primary.tailMap(cursor.getLastId(), false).keySet() : primary.headMap(cursor.getLastId(), false).descendingKeySet()), matches, max);
+                }
+                String from = cursor != null ? cursor.getLastId() : (ascending ? SortedIndex.MIN_ID : SortedIndex.MAX_ID);
+                yield scan(ascending ? byCategory.after(category, from, false) : byCategory.before(category, from, false),
+                InMemoryProductRepository::categoryId, entry -> category.equals(entry.value()), matches, max);
+            }
+            case PRICE -> {
+                Double from = cursor != null ? cursor.getLastPrice() : (ascending ? filter.getMinPrice() : filter.getMaxPrice());
+                Double to = ascending ? filter.getMaxPrice() : filter.getMinPrice();
+                yield scan(range(byPrice, from, cursor, ascending), Product::getPrice,
+                entry -> to == null || (entry.value() != null && (ascending ? entry.value() <= to : entry.value() >= to)), matches, max);
+            }
+            case NAME -> {
+                String prefix = filter.getNamePrefix();
+                String from = cursor != null ? cursor.getLastValue() : (prefix == null ? null : (ascending ? prefix : prefix + SortedIndex.MAX_ID));
+                yield scan(range(byName, from, cursor, ascending), Product::getName,
+                entry -> prefix == null || (entry.value() != null && (ascending ? entry.value().startsWith(prefix) : entry.value().compareTo(prefix) >= 0)), matches, max);
+            }
+        };
+    }
+
+    private static <V extends Comparable<? super V>> Iterable<SortedIndex.Entry<V>> range(SortedIndex<V> index, V from, ProductCursor cursor, boolean ascending) {
+        if (cursor != null) {
+            return ascending ? index.after(from, cursor.getLastId(), false) : index.before(from, cursor.getLastId(), false);
+        }
+        if (from == null) {
+            return ascending ? index.ascending() : index.descending();
+        }
+        return ascending ? index.after(from, SortedIndex.MIN_ID, true) : index.before(from, SortedIndex.MAX_ID, true);
+    }
+
+    private static boolean matches(ProductFilter filter, Product product) {
+        if (filter.getMinPrice() != null && (product.getPrice() == null || product.getPrice() < filter.getMinPrice())) {
+            return false;
+        }
+        if (filter.getMaxPrice() != null && (product.getPrice() == null || product.getPrice() > filter.getMaxPrice())) {
+            return false;
+        }
+        if (filter.getCategoryId() != null && !filter.getCategoryId().equals(categoryId(product))) {
+            return false;
+        }
+        return filter.getNamePrefix() == null || (product.getName() != null && product.getName().startsWith(filter.getNamePrefix()));
+    }
+
+    private static String categoryId(Product product) {
+        return product.getCategory() != null ? product.getCategory().getId() : null;
+    }
+
+    private Flux<Product> scan(Iterable<String> ids, Predicate<Product> matches, Limit limit) {
+        return Flux.defer(() -> Flux.fromIterable(ids)
+        .mapNotNull(primary::get)
+        .filter(matches)
+        .take(limit.isLimited() ? limit.max() : Long.MAX_VALUE)
+        .map(this::copy));
+    }
+
+    private <V> Flux<Product> scan(Iterable<SortedIndex.Entry<V>> entries, Function<Product, V> indexedValue,
+                                   Predicate<SortedIndex.Entry<V>> inRange, Predicate<Product> matches, Limit limit) {
+        return Flux.defer(() -> Flux.fromIterable(entries)
+        .takeWhile(inRange)
+        .mapNotNull(entry -> {
+            Product product = primary.get(entry.id());
+            return product != null && Objects.equals(indexedValue.apply(product), entry.value()) ? product : null;
+        })
+        .filter(matches)
+        .take(limit.isLimited() ? limit.max() : Long.MAX_VALUE)
+        .map(this::copy));
+    }
+}
@@ -0,0 +1,191 @@
+package com.base.app.repositories.memory;
+
+import org.bson.types.ObjectId;
+import org.reactivestreams.Publisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+abstract class InMemoryRepository<T> implements ReactiveSortingRepository<T, String>, ReactiveCrudRepository<T, String> {
+
+    private static final int LOCK_STRIPES = 64;
+
+    protected final NavigableMap<String, T> primary = new ConcurrentSkipListMap<>();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    protected InMemoryRepository() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    protected abstract String getId(T entity);
+
+    protected abstract void setId(T entity, String id);
+
+    protected abstract T copy(T entity);
+
+    protected abstract Comparator<T> comparator(Sort.Order order);
+
+    protected void beforeSave(T existing, T entity, boolean insert) {
+    }
+
+    protected void indexed(T previous, T current) {
+    }
+
+    protected Object lock(String id) {
+        return locks[(id.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    protected T write(T entity, boolean insert) {
+        if (getId(entity) == null) {
+            setId(entity, new ObjectId().toHexString());
+            insert = true;
+        }
+        String id = getId(entity);
+        synchronized (lock(id)) {
+            T existing = primary.get(id);
+            if (insert && existing != null) {
+                throw new DuplicateKeyException("E11000 duplicate key error dup key: { _id: \"" + id + "\" }");
+            }
+            beforeSave(existing, entity, insert);
+            T stored = copy(entity);
+            primary.put(id, stored);
+            indexed(existing, stored);
+        }
+        return entity;
+    }
+
+    protected T remove(String id) {
+        synchronized (lock(id)) {
+            T removed = primary.remove(id);
+            if (removed != null) {
+                indexed(removed, null);
+            }
+            return removed;
+        }
+    }
+
+    protected Flux<T> stream(Collection<T> values) {
+        return Flux.fromIterable(values).map(this::copy);
+    }
+
+    @Override
+    public <S extends T> Mono<S> save(S entity) {
+        return Mono.fromCallable(() -> {
+            write(entity, false);
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<T> findById(String id) {
+        return Mono.fromSupplier(() -> primary.get(id)).map(this::copy);
+    }
+
+    @Override
+    public Mono<T> findById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+        return Mono.fromSupplier(() -> primary.containsKey(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<T> findAll() {
+        return Flux.defer(() -> stream(primary.values()));
+    }
+
+    @Override
+    public Flux<T> findAll(Sort sort) {
+        return Flux.defer(() -> {
+            List<T> sorted = new ArrayList<>(primary.values());
+            Comparator<T> comparator = null;
+            for (Sort.Order order : sort) {
+                comparator = comparator == null ? comparator(order) : comparator.thenComparing(comparator(order));
+            }
+            if (comparator != null) {
+                sorted.sort(comparator);
+            }
+            return stream(sorted);
+        });
+    }
+
+    @Override
+    public Flux<T> findAllById(Iterable<String> ids) {
+        return Flux.fromIterable(ids).mapNotNull(primary::get).map(this::copy);
+    }
+
+    @Override
+    public Flux<T> findAllById(Publisher<String> idStream) {
+        return Flux.from(idStream).mapNotNull(primary::get).map(this::copy);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.fromSupplier(() -> (long) primary.size());
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return Mono.fromRunnable(() -> remove(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<String> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(T entity) {
+        return deleteById(getId(entity));
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends String> ids) {
+        return Flux.fromIterable(ids).concatMap(this::deleteById).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.fromRunnable(() -> primary.keySet().forEach(this::remove));
+    }
+}
@@ -0,0 +1,28 @@
+package com.base.app.repositories.memory;
+
+import com.base.app.repositories.StorageInitializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Component
+@Profile("inmemory")
+public class InMemoryStorageInitializer implements StorageInitializer {
+
+    @Autowired
+    private InMemoryProductRepository productRepository;
+
+    @Autowired
+    private InMemoryCategoryRepository categoryRepository;
+
+    @Override
+    public Mono<Void> dropAll() {
+        return Mono.when(productRepository.deleteAll(), categoryRepository.deleteAll());
+    }
+
+    @Override
+    public Mono<Void> ensureIndexes() {
+        return Mono.empty();
+    }
+}
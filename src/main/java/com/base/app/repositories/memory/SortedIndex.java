@@ -0,0 +1,48 @@
+package com.base.app.repositories.memory;
+
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+class SortedIndex<V extends Comparable<? super V>> {
+
+    static final String MIN_ID = "";
+
+    static final String MAX_ID = "\uffff";
+
+    private final NavigableSet<Entry<V>> entries = new ConcurrentSkipListSet<>(
+    Comparator.<Entry<V>, V>comparing(Entry::value, Comparator.nullsFirst(Comparator.naturalOrder()))
+    .thenComparing(Entry::id)
+    );
+
+    void add(V value, String id) {
+        entries.add(new Entry<>(value, id));
+    }
+
+    void remove(V value, String id) {
+        entries.remove(new Entry<>(value, id));
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    NavigableSet<Entry<V>> ascending() {
+        return entries;
+    }
+
+    NavigableSet<Entry<V>> descending() {
+        return entries.descendingSet();
+    }
+
+    NavigableSet<Entry<V>> after(V value, String id, boolean inclusive) {
+        return entries.tailSet(new Entry<>(value, id), inclusive);
+    }
+
+    NavigableSet<Entry<V>> before(V value, String id, boolean inclusive) {
+        return entries.headSet(new Entry<>(value, id), inclusive).descendingSet();
+    }
+
+    record Entry<V>(V value, String id) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.base.app.seed;
+
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import com.base.app.repositories.StorageInitializer;
+import com.base.app.services.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class DataSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    private static final String[] BRANDS = {"Sony", "Apple", "Panasonic", "Hewlett Packard", "Bianchi", "Mica", "Samsung", "Lenovo"};
+
+    private static final String[] ITEMS = {"Notebook", "TV", "Camara", "Bicicleta", "Multifuncional", "Cómoda", "Monitor", "Tablet"};
+
+    private static final long EPOCH = 1700000000000L;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StorageInitializer storageInitializer;
+
+    @Value("${config.seed.mode:none}")
+    private SeedMode mode;
+
+    @Value("${config.seed.ensure-indexes:true}")
+    private boolean ensureIndexes;
+
+    @Value("${config.seed.drop:false}")
+    private boolean drop;
+
+    @Value("${config.seed.products:10000}")
+    private long products;
+
+    @Value("${config.seed.categories:20}")
+    private int categories;
+
+    @Value("${config.seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${config.seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${config.seed.concurrency:4}")
+    private int concurrency;
+
+    @Value("${config.seed.progress-interval:100000}")
+    private long progressInterval;
+
+    public Mono<Void> seed() {
+        Mono<Void> indexes = ensureIndexes ? storageInitializer.ensureIndexes() : Mono.empty();
+        if (mode == SeedMode.NONE) {
+            return indexes;
+        }
+        Mono<Void> prepare = drop
+        ? storageInitializer.dropAll().doOnSuccess(v -> log.warn("Dropped products and categories before seeding"))
+        : Mono.empty();
+        return prepare
+        .then(indexes)
+        .then(productService.findAll().hasElements())
+        .flatMap(hasProducts -> {
+            if (hasProducts) {
+                log.info("Products already present, skipping " + mode.name().toLowerCase() + " seeding");
+                return Mono.empty();
+            }
+            return mode == SeedMode.SAMPLE ? seedSample() : seedSynthetic();
+        });
+    }
+
+    private Mono<Void> seedSample() {
+        Category electronics = new Category("electronics");
+        Category sport = new Category("sport");
+        Category computation = new Category("computation");
+        Category furniture = new Category("furniture");
+
+        return Flux.just(electronics, sport, computation, furniture)
+        .concatMap(productService::saveCategory)
+        .doOnNext(c -> log.info("Category created: " + c.getName() + ", Id: " + c.getId()))
+        .thenMany(Flux.just(new Product("TV Panasonic Pantalla LCD", 456.89, electronics),
+        new Product("Sony Camara HD Digital", 177.89, electronics),
+        new Product("Apple iPod", 46.89, electronics),
+        new Product("Sony Notebook", 846.89, computation),
+        new Product("Hewlett Packard Multifuncional", 200.89, computation),
+        new Product("Bianchi Bicicleta", 70.89, sport),
+        new Product("HP Notebook Omen 17", 2500.89, computation),
+        new Product("Mica Cómoda 5 Cajones", 150.89, furniture),
+        new Product("TV Sony Bravia OLED 4K Ultra HD", 2255.89, electronics)))
+        .concatMap(product -> {
+            product.setCreateAt(new Date());
+            return productService.save(product);
+        })
+        .doOnNext(product -> log.info("Insert: " + product.getId() + " " + product.getName()))
+        .then();
+    }
+
+    private Mono<Void> seedSynthetic() {
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long start = System.nanoTime();
+        log.info("Seeding " + products + " synthetic products in " + categories + " categories (seed " + randomSeed + ")");
+
+        return Flux.range(0, categories)
+        .map(i -> new Category("category-" + i))
+        .concatMap(productService::saveCategory)
+        .collectList()
+        .flatMapMany(saved -> Flux.<Product, Long>generate(() -> 0L, (index, sink) -> {
+            if (index >= products) {
+                sink.complete();
+            } else {
+                sink.next(product(index, random, saved));
+            }
+            return index + 1;
+        }))
+        .buffer(batchSize)
+        .flatMap(batch -> productService.insertAll(batch), concurrency)
+        .doOnNext(result -> {
+            long before = inserted.getAndAdd(result.inserted());
+            failed.addAndGet(result.failures().size());
+            if ((before + result.inserted()) / progressInterval > before / progressInterval) {
+                log.info("Seeded " + (before + result.inserted()) + "/" + products + " products (" + rate(before + result.inserted(), start) + " rows/s)");
+            }
+        })
+        .then(Mono.fromRunnable(() -> log.info("Seeded " + inserted.get() + " products (" + failed.get() + " failed) in "
+        + (System.nanoTime() - start) / 1_000_000 + " ms, " + rate(inserted.get(), start) + " rows/s")));
+    }
+
+    private static Product product(long index, SplittableRandom random, List<Category> categories) {
+        String name = BRANDS[random.nextInt(BRANDS.length)] + " " + ITEMS[random.nextInt(ITEMS.length)] + " " + index;
+        double price = random.nextInt(100, 500000) / 100.0;
+        Product product = new Product(name, price, categories.get(random.nextInt(categories.size())));
+        product.setCreateAt(new Date(EPOCH + index * 1000));
+        return product;
+    }
+
+    private static long rate(long rows, long startNanos) {
+        long elapsed = Math.max(System.nanoTime() - startNanos, 1);
+        return rows * 1_000_000_000L / elapsed;
+    }
+}
@@ -0,0 +1,9 @@
+package com.base.app.seed;
+
+public enum SeedMode {
+
+    NONE,
+    SAMPLE,
+    SYNTHETIC
+
+}
@@ -0,0 +1,8 @@
+package com.base.app.services;
+
+public class InsertQueueFullException extends RuntimeException {
+
+    public InsertQueueFullException(int maxPending) {
+        super("Too many inserts waiting to be written (" + maxPending + " pending)");
+    }
+}
@@ -0,0 +1,147 @@
+package com.base.app.services;
+
+import com.base.app.documents.Product;
+import com.base.app.repositories.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class ProductInsertBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductInsertBatcher.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${config.write-batching.enabled:false}")
+    private boolean enabled;
+
+    @Value("${config.write-batching.window:5ms}")
+    private Duration window;
+
+    @Value("${config.write-batching.max-batch-size:256}")
+    private int maxBatchSize;
+
+    @Value("${config.write-batching.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${config.write-batching.shutdown-timeout:10s}")
+    private Duration shutdownTimeout;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private Sinks.Many<PendingInsert> queue;
+
+    private CompletableFuture<Void> worker;
+
+    private DistributionSummary batchSizes;
+
+    private Timer queueDelay;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        batchSizes = DistributionSummary.builder("products.write.batch.size")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+        queueDelay = Timer.builder("products.write.queue.delay")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+        meterRegistry.gauge("products.write.queue.pending", pending);
+        queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingInsert>get(maxPending).get());
+        worker = queue.asFlux()
+        .bufferTimeout(maxBatchSize, window, true)
+        .concatMap(this::flush)
+        .then()
+        .toFuture();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            synchronized (this) {
+                queue.tryEmitComplete();
+            }
+            // the last batches are still being written, and the Mongo client closes right after this bean
+            try {
+                worker.get(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Queued inserts were still being written after " + shutdownTimeout);
+            } catch (ExecutionException e) {
+                log.warn("Insert batching stopped with an error", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Mono<Product> insert(Product product) {
+        return Mono.create(sink -> {
+            Sinks.EmitResult result;
+            synchronized (this) {
+                result = queue.tryEmitNext(new PendingInsert(product, sink, System.nanoTime()));
+            }
+            if (result.isSuccess()) {
+                pending.incrementAndGet();
+            } else if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                sink.error(new InsertQueueFullException(maxPending));
+            } else {
+                sink.error(new IllegalStateException("Insert queue is closed (" + result + ")"));
+            }
+        });
+    }
+
+    private Mono<Void> flush(List<PendingInsert> batch) {
+        long now = System.nanoTime();
+        pending.addAndGet(-batch.size());
+        batchSizes.record(batch.size());
+        batch.forEach(insert -> queueDelay.record(now - insert.enqueuedAt(), TimeUnit.NANOSECONDS));
+        List<Product> products = batch.stream().map(PendingInsert::product).toList();
+        return productRepository.insertUnordered(products).doOnNext(result -> {
+            for (int i = 0; i < batch.size(); i++) {
+                String failure = result.failures().get(i);
+                if (failure == null) {
+                    batch.get(i).sink().success(batch.get(i).product());
+                } else {
+                    batch.get(i).sink().error(new DataIntegrityViolationException(failure));
+                }
+            }
+        }).onErrorResume(e -> {
+            batch.forEach(insert -> insert.sink().error(e));
+            return Mono.empty();
+        }).then();
+    }
+
+    private record PendingInsert(Product product, MonoSink<Product> sink, long enqueuedAt) {
+    }
+}
@@ -2,27 +2,52 @@ package com.base.app.services;
 
 import com.base.app.documents.Category;
 import com.base.app.documents.Product;
+import com.base.app.pagination.ProductPage;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.repositories.BulkInsertResult;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 public interface ProductService {
 
     public Flux<Product> findAll();
 
+    public Flux<Product> export(String afterId, int batchSize);
+
     public Flux<Product> findAllWithNameUpperCase();
 
     public Flux<Product> findAllWithNameUpperCaseRepeat();
 
+    public Flux<Product> search(ProductPageRequest searchRequest);
+
+    public Mono<ProductPage> findPage(ProductPageRequest pageRequest);
+
     public Mono<Product> findById(String id);
 
+    public Flux<Product> findAllById(Iterable<String> ids);
+
     public Mono<Product> save(Product product);
 
+    public Mono<BulkInsertResult> insertAll(List<Product> products);
+
+    public Mono<Product> update(String id, Product changes);
+
+    public Mono<Boolean> updateVariants(String id, String picture, Map<String, String> variants);
+
     public Mono<Void> delete(Product product);
 
+    public Mono<Boolean> deleteById(String id);
+
     public Flux<Category> findAllCategories();
 
     public Mono<Category> findCategoryById(String id);
 
     public Mono<Category> saveCategory(Category category);
 
+    public Optional<String> collectionVersion();
+
 }
@@ -1,14 +1,35 @@
 package com.base.app.services;
 
+import com.base.app.cache.ReactiveCache;
+import com.base.app.cache.SingleFlight;
 import com.base.app.documents.Category;
 import com.base.app.documents.Product;
+import com.base.app.pagination.ProductCursor;
+import com.base.app.pagination.ProductPage;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.pagination.ProductSortKey;
+import com.base.app.repositories.BulkInsertResult;
 import com.base.app.repositories.CategoryRepository;
+import com.base.app.repositories.ProductQueries;
 import com.base.app.repositories.ProductRepository;
+import com.base.app.storage.PictureCollector;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Service
 public class ProductServiceImpl implements ProductService {
 
@@ -19,24 +40,201 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ReactiveCache<String, Product> productCache;
+
+    @Autowired
+    private ReactiveCache<String, Category> categoryCache;
+
+    @Autowired
+    private ProductInsertBatcher insertBatcher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PictureCollector pictureCollector;
+
+    @Value("${config.pagination.max-limit:500}")
+    private int maxPageLimit;
+
+    @Value("${config.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+
+    @Value("${config.etags.collection.enabled:false}")
+    private boolean collectionETagsEnabled;
+
+    private SingleFlight<String, Product> productFlights;
+
+    private SingleFlight<String, Category> categoryFlights;
+
+    private SingleFlight<String, ProductPage> pageFlights;
+
+    private SingleFlight<List<String>, List<Product>> batchFlights;
+
+    private SingleFlight<String, List<Category>> categoryListFlights;
+
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong collectionVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        productFlights = new SingleFlight<>("products", coalescingEnabled, meterRegistry);
+        categoryFlights = new SingleFlight<>("categories", coalescingEnabled, meterRegistry);
+        pageFlights = new SingleFlight<>("product-pages", coalescingEnabled, meterRegistry);
+        batchFlights = new SingleFlight<>("product-batches", coalescingEnabled, meterRegistry);
+        categoryListFlights = new SingleFlight<>("category-lists", coalescingEnabled, meterRegistry);
+    }
+
     @Override
     public Flux<Product> findAll() {
         return productRepository.findAll();
     }
 
+    @Override
+    public Flux<Product> export(String afterId, int batchSize) {
+        return productRepository.scanAfter(afterId, batchSize);
+    }
+
+    @Override
+    public Flux<Product> search(ProductPageRequest searchRequest) {
+        return productRepository.search(searchRequest, 0);
+    }
+
+    @Override
+    public Mono<ProductPage> findPage(ProductPageRequest pageRequest) {
+        int size = Math.min(pageRequest.getLimit(), maxPageLimit);
+        String key = pageRequest.getFilter() + ":" + pageRequest.getSortKey() + ":" + pageRequest.getDirection() + ":" + size + ":"
+        + (pageRequest.getCursor() == null ? "" : pageRequest.getCursor().encode());
+        return pageFlights.execute(key, k -> findPage(pageRequest, size));
+    }
+
+    private Mono<ProductPage> findPage(ProductPageRequest pageRequest, int size) {
+        return findAfter(pageRequest, Limit.of(size + 1)).collectList().map(products -> {
+            if (products.size() <= size) {
+                return new ProductPage(products, null);
+            }
+            List<Product> content = products.subList(0, size);
+            Product last = content.get(size - 1);
+            String next = ProductCursor.after(last, pageRequest.getSortKey(), pageRequest.getDirection()).encode();
+            return new ProductPage(content, next);
+        });
+    }
+
+    private Flux<Product> findAfter(ProductPageRequest pageRequest, Limit limit) {
+        if (!pageRequest.getFilter().isEmpty()) {
+            return productRepository.search(pageRequest, limit.max());
+        }
+        Sort sort = pageRequest.toSort();
+        ProductCursor cursor = pageRequest.getCursor();
+        if (cursor == null) {
+            return productRepository.findAllBy(sort, limit);
+        }
+        boolean ascending = pageRequest.getDirection().isAscending();
+        String id = cursor.getLastId();
+        // null keys sort first, so only ascending pages after a non-null key can skip them with a derived query
+        if (pageRequest.getSortKey() != ProductSortKey.ID && (!ascending || cursor.getLastValue() == null)) {
+            return productRepository.search(pageRequest, limit.max());
+        }
+        return switch (pageRequest.getSortKey()) {
+            case ID -> ascending
+            ? productRepository.findByIdGreaterThan(id, sort, limit)
+            : productRepository.findByIdLessThan(id, sort, limit);
+            case PRICE -> productRepository.findByPriceGreaterThanOrPriceAndIdGreaterThan(cursor.getLastPrice(), cursor.getLastPrice(), id, sort, limit);
+            case NAME -> productRepository.findByNameGreaterThanOrNameAndIdGreaterThan(cursor.getLastValue(), cursor.getLastValue(), id, sort, limit);
+        };
+    }
+
     @Override
     public Mono<Product> findById(String id) {
-        return productRepository.findById(id);
+        return productFlights.execute(id, k -> productCache.get(k, productRepository::findById)).map(Product::new);
+    }
+
+    @Override
+    public Flux<Product> findAllById(Iterable<String> ids) {
+        List<String> key = new ArrayList<>();
+        ids.forEach(key::add);
+        return batchFlights.execute(key, k -> productRepository.findAllById(k).collectList())
+        .flatMapIterable(products -> products)
+        .map(Product::new);
     }
 
     @Override
     public Mono<Product> save(Product product) {
-        return productRepository.save(product);
+        Mono<Product> write = insertBatcher.isEnabled() && product.getId() == null
+        ? insertBatcher.insert(product)
+        : productRepository.save(product);
+        return versioned(write
+        .doOnNext(saved -> productCache.put(saved.getId(), new Product(saved))));
+    }
+
+    @Override
+    public Mono<BulkInsertResult> insertAll(List<Product> products) {
+        return versioned(productRepository.insertUnordered(products));
+    }
+
+    @Override
+    public Mono<Product> update(String id, Product changes) {
+        if (changes.getPicture() == null) {
+            return updateFields(id, changes, productRepository.updateFields(id, changes));
+        }
+        // the previous document comes from the same findAndModify, so the released picture is the one actually replaced
+        return updateFields(id, changes, productRepository.updateFieldsReturningPrevious(id, changes)
+        .map(previous -> {
+            Product updated = ProductQueries.applyFieldUpdate(previous, changes);
+            if (previous.getPicture() != null && !previous.getPicture().equals(updated.getPicture())) {
+                pictureCollector.release(previous.getPicture());
+            }
+            return updated;
+        }));
+    }
+
+    private Mono<Product> updateFields(String id, Product changes, Mono<Product> write) {
+        return versioned(write
+        .doOnNext(updated -> productCache.put(updated.getId(), new Product(updated)))
+        .switchIfEmpty(Mono.defer(() -> changes.getVersion() == null
+        ? Mono.empty()
+        : productRepository.existsById(id).flatMap(exists -> exists
+        ? Mono.error(new OptimisticLockingFailureException("Product " + id + " was modified concurrently"))
+        : Mono.empty()))));
+    }
+
+    @Override
+    public Mono<Boolean> updateVariants(String id, String picture, Map<String, String> variants) {
+        return versioned(productRepository.updateVariants(id, picture, variants), id);
     }
 
     @Override
     public Mono<Void> delete(Product product) {
-        return productRepository.delete(product);
+        return versioned(productRepository.delete(product)
+        .doOnSuccess(done -> pictureCollector.release(product.getPicture())), product.getId());
+    }
+
+    @Override
+    public Mono<Boolean> deleteById(String id) {
+        return versioned(productRepository.removeById(id)
+        .doOnNext(deleted -> pictureCollector.release(deleted.getPicture()))
+        .map(deleted -> true)
+        .defaultIfEmpty(false), id);
+    }
+
+    private <T> Mono<T> versioned(Mono<T> write) {
+        return versioned(write, null);
+    }
+
+    // runs before the write's result reaches the caller, so a listing ETag taken earlier can no longer revalidate
+    private <T> Mono<T> versioned(Mono<T> write, String invalidatedId) {
+        Runnable written = () -> {
+            if (invalidatedId != null) {
+                productCache.invalidate(invalidatedId);
+            }
+            collectionVersion.incrementAndGet();
+        };
+        return write.materialize()
+        .doOnNext(signal -> written.run())
+        .doOnCancel(written)
+        .dematerialize();
     }
 
     @Override
@@ -54,17 +252,26 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Flux<Category> findAllCategories() {
-        return categoryRepository.findAll();
+        return categoryListFlights.execute("all", k -> categoryRepository.findAll().collectList())
+        .flatMapIterable(categories -> categories)
+        .map(Category::new);
     }
 
     @Override
     public Mono<Category> findCategoryById(String id) {
-        return categoryRepository.findById(id);
+        return categoryFlights.execute(id, k -> categoryCache.get(k, categoryRepository::findById)).map(Category::new);
     }
 
     @Override
     public Mono<Category> saveCategory(Category category) {
-        return categoryRepository.save(category);
+        return categoryRepository.save(category)
+        .doOnNext(saved -> categoryCache.put(saved.getId(), new Category(saved)));
+    }
+
+    @Override
+    public Optional<String> collectionVersion() {
+        // the counter only sees writes made through this instance
+        return collectionETagsEnabled ? Optional.of(instance + "." + collectionVersion.get()) : Optional.empty();
     }
 
 
@@ -0,0 +1,47 @@
+package com.base.app.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@Component
+public class StartupTimelineReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimelineReporter.class);
+
+    @Value("${config.startup.timeline-steps:10}")
+    private int steps;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        log.info("Ready in " + Duration.between(timeline.getStartTime(), Instant.now()).toMillis() + " ms (" + event.getTimeTaken().toMillis()
+        + " ms context), slowest startup steps:\n" + timeline.getEvents().stream()
+        .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+        .limit(steps)
+        .map(step -> String.format("%8d ms  %s%s", step.getDuration().toMillis(), step.getStartupStep().getName(), tags(step.getStartupStep())))
+        .collect(Collectors.joining("\n")));
+    }
+
+    private static String tags(StartupStep step) {
+        String tags = StreamSupport.stream(step.getTags().spliterator(), false)
+        .map(tag -> tag.getKey() + "=" + tag.getValue())
+        .collect(Collectors.joining(", "));
+        return tags.isEmpty() ? "" : " [" + tags + "]";
+    }
+}
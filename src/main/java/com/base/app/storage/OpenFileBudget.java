@@ -0,0 +1,50 @@
+package com.base.app.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class OpenFileBudget {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${config.pictures.max-open-files:256}")
+    private int maxOpenFiles;
+
+    private final AtomicInteger open = new AtomicInteger();
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("pictures.open.files", open);
+        rejected = meterRegistry.counter("pictures.open.rejected");
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = open.get();
+            if (current >= maxOpenFiles) {
+                rejected.increment();
+                return false;
+            }
+        } while (!open.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release() {
+        open.decrementAndGet();
+    }
+
+    public int getOpen() {
+        return open.get();
+    }
+}
@@ -0,0 +1,150 @@
+package com.base.app.storage;
+
+import com.base.app.repositories.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class PictureCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(PictureCollector.class);
+
+    @Autowired
+    private PictureStore store;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${config.storage.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${config.storage.gc.interval:1m}")
+    private Duration interval;
+
+    @Value("${config.storage.gc.sweep-interval:6h}")
+    private Duration sweepInterval;
+
+    @Value("${config.storage.gc.grace-period:1h}")
+    private Duration gracePeriod;
+
+    @Value("${config.storage.gc.concurrency:4}")
+    private int concurrency;
+
+    @Value("${config.storage.gc.max-candidates:100000}")
+    private int maxCandidates;
+
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    private Counter collected;
+
+    private Disposable worker;
+
+    @PostConstruct
+    public void start() {
+        collected = meterRegistry.counter("pictures.collected");
+        meterRegistry.gaugeMapSize("pictures.gc.candidates", List.of(), candidates);
+        if (!enabled) {
+            return;
+        }
+        lastSweep.set(System.currentTimeMillis());
+        worker = Flux.interval(interval, interval)
+        .onBackpressureDrop()
+        .concatMap(tick -> collect()
+        .onErrorResume(e -> {
+            log.warn("Picture collection failed", e);
+            return Mono.empty();
+        }))
+        .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.dispose();
+        }
+    }
+
+    public void release(String picture) {
+        if (store.isBlob(picture) && candidates.size() < maxCandidates) {
+            candidates.putIfAbsent(picture, System.currentTimeMillis());
+        }
+    }
+
+    public Mono<Long> collect() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep.get() >= sweepInterval.toMillis()) {
+            lastSweep.set(now);
+            return sweep();
+        }
+        return collectCandidates();
+    }
+
+    public Mono<Long> collectCandidates() {
+        long cutoff = System.currentTimeMillis() - gracePeriod.toMillis();
+        List<String> due = new ArrayList<>();
+        candidates.forEach((picture, releasedAt) -> {
+            if (releasedAt <= cutoff) {
+                due.add(picture);
+            }
+        });
+        due.forEach(candidates::remove);
+        return Flux.fromIterable(due)
+        .flatMap(this::collect, concurrency)
+        .filter(deleted -> deleted)
+        .count();
+    }
+
+    public Mono<Long> sweep() {
+        long cutoff = System.currentTimeMillis() - gracePeriod.toMillis();
+        Mono<Long> incoming = store.incoming()
+        .filter(file -> store.lastModified(file).toMillis() <= cutoff)
+        .filter(store::delete)
+        .count();
+        Mono<Long> blobs = store.blobs()
+        .flatMap(this::collect, concurrency)
+        .filter(deleted -> deleted)
+        .count();
+        return incoming.then(blobs)
+        .doOnNext(count -> log.info("Picture sweep removed " + count + " unreferenced files"));
+    }
+
+    private Mono<Boolean> collect(String picture) {
+        long cutoff = System.currentTimeMillis() - gracePeriod.toMillis();
+        return Mono.fromCallable(() -> store.resolve(picture))
+        .filter(file -> store.lastModified(file).toMillis() <= cutoff)
+        .flatMap(file -> productRepository.countByPicture(picture)
+        .publishOn(Schedulers.boundedElastic())
+        .map(references -> references == 0 && store.lastModified(file).toMillis() <= cutoff && store.delete(file)))
+        .subscribeOn(Schedulers.boundedElastic())
+        .doOnNext(deleted -> {
+            if (deleted) {
+                store.deleteVariants(picture);
+                collected.increment();
+            }
+        })
+        .defaultIfEmpty(false);
+    }
+}
@@ -0,0 +1,209 @@
+package com.base.app.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Component
+public class PictureStore {
+
+    static final String INCOMING = ".incoming";
+
+    private static final Pattern BLOB = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}(\\.[a-z0-9]{1,8})?");
+
+    private static final Pattern VARIANT = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}@[0-9]{1,5}\\.[a-z0-9]{1,8}");
+
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,8}");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${config.uploads.path}")
+    private String path;
+
+    private Path root;
+
+    private Counter stored;
+
+    private Counter deduplicated;
+
+    @PostConstruct
+    public void init() {
+        root = Paths.get(path).toAbsolutePath().normalize();
+        stored = meterRegistry.counter("pictures.stored");
+        deduplicated = meterRegistry.counter("pictures.deduplicated");
+    }
+
+    public Mono<StoredPicture> store(String filename, Flux<DataBuffer> content) {
+        return Mono.defer(() -> {
+            Path incoming = root.resolve(INCOMING).resolve(UUID.randomUUID().toString());
+            MessageDigest digest = sha256();
+            long[] size = new long[1];
+            Flux<DataBuffer> hashed = content.doOnNext(buffer -> {
+                size[0] += buffer.readableByteCount();
+                try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                    buffers.forEachRemaining(digest::update);
+                }
+            });
+            return Mono.fromCallable(() -> Files.createDirectories(incoming.getParent()))
+            .subscribeOn(Schedulers.boundedElastic())
+            .then(DataBufferUtils.write(hashed, incoming))
+            .then(Mono.fromCallable(() -> commit(incoming, HexFormat.of().formatHex(digest.digest()), extension(filename), size[0]))
+            .subscribeOn(Schedulers.boundedElastic()))
+            .doOnError(e -> delete(incoming))
+            .doOnCancel(() -> delete(incoming));
+        });
+    }
+
+    public Path resolve(String picture) {
+        Path resolved = root.resolve(picture).normalize();
+        if (!resolved.startsWith(root) || resolved.equals(root) || root.relativize(resolved).getName(0).toString().startsWith(".")) {
+            throw new IllegalArgumentException("Invalid picture reference: " + picture);
+        }
+        return resolved;
+    }
+
+    public boolean isBlob(String picture) {
+        return picture != null && BLOB.matcher(picture).matches();
+    }
+
+    public boolean isVariant(String picture) {
+        return picture != null && VARIANT.matcher(picture).matches();
+    }
+
+    public String variant(String picture, int width, String extension) {
+        int dot = picture.indexOf('.', picture.lastIndexOf('/'));
+        return (dot < 0 ? picture : picture.substring(0, dot)) + "@" + width + "." + extension;
+    }
+
+    public Path incomingFile() throws IOException {
+        Path incoming = root.resolve(INCOMING);
+        Files.createDirectories(incoming);
+        return incoming.resolve(UUID.randomUUID().toString());
+    }
+
+    public void commitVariant(Path incoming, String variant) throws IOException {
+        Path target = resolve(variant);
+        Files.createDirectories(target.getParent());
+        Files.move(incoming, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void deleteVariants(String picture) {
+        Path blob = resolve(picture);
+        String name = blob.getFileName().toString();
+        int dot = name.indexOf('.');
+        String prefix = (dot < 0 ? name : name.substring(0, dot)) + "@";
+        try (Stream<Path> siblings = Files.list(blob.getParent())) {
+            siblings.filter(file -> file.getFileName().toString().startsWith(prefix)).forEach(this::delete);
+        } catch (IOException e) {
+            // the shard directory is gone, so there is nothing left to delete
+        }
+    }
+
+    public Flux<String> blobs() {
+        return Flux.using(() -> Files.exists(root) ? Files.walk(root, 3) : Stream.<Path>empty(),
+        paths -> Flux.fromStream(paths
+        .filter(Files::isRegularFile)
+        .map(file -> root.relativize(file).toString().replace('\\', '/'))
+        .filter(this::isBlob)),
+        Stream::close)
+        .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Flux<Path> incoming() {
+        Path incoming = root.resolve(INCOMING);
+        return Flux.using(() -> Files.exists(incoming) ? Files.list(incoming) : Stream.<Path>empty(),
+        Flux::fromStream,
+        Stream::close)
+        .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(Long.MAX_VALUE);
+        }
+    }
+
+    public boolean delete(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private StoredPicture commit(Path incoming, String hash, String extension, long size) throws IOException {
+        String picture = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+        Path target = root.resolve(picture);
+        if (refresh(target)) {
+            return deduplicate(incoming, picture, target, size);
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(incoming, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            return deduplicate(incoming, picture, target, size);
+        }
+        stored.increment();
+        return new StoredPicture(picture, target, size, false);
+    }
+
+    private static boolean refresh(Path target) throws IOException {
+        // the touch is the existence check, the collector may delete the blob right after a separate one
+        try {
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private StoredPicture deduplicate(Path incoming, String picture, Path target, long size) {
+        delete(incoming);
+        deduplicated.increment();
+        return new StoredPicture(picture, target, size, true);
+    }
+
+    private static String extension(String filename) {
+        int dot = filename == null ? -1 : filename.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        String extension = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
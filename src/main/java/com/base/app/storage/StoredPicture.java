@@ -0,0 +1,6 @@
+package com.base.app.storage;
+
+import java.nio.file.Path;
+
+public record StoredPicture(String picture, Path file, long size, boolean deduplicated) {
+}
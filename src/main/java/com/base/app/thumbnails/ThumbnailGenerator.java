@@ -0,0 +1,218 @@
+package com.base.app.thumbnails;
+
+import com.base.app.documents.Product;
+import com.base.app.services.ProductService;
+import com.base.app.storage.PictureStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ThumbnailGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailGenerator.class);
+
+    @Autowired
+    private ProductService service;
+
+    @Autowired
+    private PictureStore store;
+
+    @Autowired
+    private ThumbnailJournal journal;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${config.thumbnails.enabled:true}")
+    private boolean enabled;
+
+    @Value("${config.thumbnails.sizes:160,480}")
+    private int[] sizes;
+
+    @Value("${config.thumbnails.workers:2}")
+    private int workers;
+
+    @Value("${config.thumbnails.max-queued:1000}")
+    private int maxQueued;
+
+    @Value("${config.thumbnails.rescan-interval:1m}")
+    private Duration rescanInterval;
+
+    @Value("${config.thumbnails.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    private Sinks.Many<ThumbnailJob> queue;
+
+    private Scheduler scheduler;
+
+    private Disposable worker;
+
+    private Disposable recovery;
+
+    private Timer processing;
+
+    private Counter failed;
+
+    @PostConstruct
+    public void start() {
+        meterRegistry.gaugeCollectionSize("thumbnails.queue.depth", List.of(), queued);
+        processing = Timer.builder("thumbnails.processing")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+        failed = meterRegistry.counter("thumbnails.failed");
+        if (!enabled) {
+            return;
+        }
+        scheduler = Schedulers.newParallel("thumbnails", workers, true);
+        queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<ThumbnailJob>get(maxQueued).get());
+        worker = queue.asFlux()
+        .flatMap(job -> process(job).subscribeOn(scheduler), workers)
+        .subscribe();
+        recovery = Flux.interval(Duration.ZERO, rescanInterval)
+        .onBackpressureDrop()
+        .concatMap(tick -> journal.pending()
+        .doOnNext(this::enqueue)
+        .then()
+        .onErrorResume(e -> {
+            log.warn("Thumbnail job rescan failed", e);
+            return Mono.empty();
+        }))
+        .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recovery != null) {
+            recovery.dispose();
+        }
+        if (worker != null) {
+            worker.dispose();
+            scheduler.dispose();
+        }
+    }
+
+    public Mono<Void> submit(Product product) {
+        if (!enabled || product.getId() == null || !store.isBlob(product.getPicture())) {
+            return Mono.empty();
+        }
+        ThumbnailJob job = new ThumbnailJob(product.getId(), product.getPicture());
+        return journal.write(job).doOnSuccess(done -> enqueue(job));
+    }
+
+    private void enqueue(ThumbnailJob job) {
+        if (!queued.add(job.id())) {
+            return;
+        }
+        Sinks.EmitResult result;
+        synchronized (this) {
+            result = queue.tryEmitNext(job);
+        }
+        if (result.isFailure()) {
+            // the job stays in the journal and is picked up by the next rescan
+            queued.remove(job.id());
+        }
+    }
+
+    Mono<Void> process(ThumbnailJob job) {
+        return Mono.fromCallable(() -> processing.recordCallable(() -> generate(job)))
+        .flatMap(variants -> variants.isEmpty() ? Mono.just(true) : service.updateVariants(job.productId(), job.picture(), variants)
+        .filter(updated -> updated)
+        .switchIfEmpty(Mono.defer(() -> obsolete(job))))
+        .flatMap(done -> {
+            if (done) {
+                return journal.delete(job);
+            }
+            failed.increment();
+            log.warn("Thumbnail job " + job.id() + " could not be applied, it will be retried");
+            return Mono.empty();
+        })
+        .onErrorResume(e -> {
+            failed.increment();
+            if (e instanceof UnsupportedImageException) {
+                log.warn(e.getMessage() + ", skipping thumbnails");
+                return journal.delete(job);
+            }
+            log.warn("Thumbnail job " + job.id() + " failed, it will be retried", e);
+            return Mono.empty();
+        })
+        .doFinally(signal -> queued.remove(job.id()));
+    }
+
+    private Mono<Boolean> obsolete(ThumbnailJob job) {
+        // only drop the job once the product is gone or no longer shows this picture
+        return service.findById(job.productId())
+        .map(product -> !job.picture().equals(product.getPicture()))
+        .defaultIfEmpty(true);
+    }
+
+    Map<String, String> generate(ThumbnailJob job) throws Exception {
+        Path source = store.resolve(job.picture());
+        Map<String, String> variants = new LinkedHashMap<>();
+        if (!Files.exists(source)) {
+            return variants;
+        }
+        BufferedImage image = null;
+        for (int size : sizes) {
+            String existing = existingVariant(job.picture(), size);
+            if (existing != null) {
+                variants.put(String.valueOf(size), existing);
+                continue;
+            }
+            if (image == null) {
+                image = ImageResizer.read(source);
+            }
+            if (Math.max(image.getWidth(), image.getHeight()) <= size) {
+                variants.put(String.valueOf(size), job.picture());
+                continue;
+            }
+            String extension = ImageResizer.extension(image);
+            String variant = store.variant(job.picture(), size, extension);
+            Path incoming = store.incomingFile();
+            try {
+                ImageResizer.write(ImageResizer.scale(image, size), extension, jpegQuality, incoming);
+                store.commitVariant(incoming, variant);
+            } finally {
+                Files.deleteIfExists(incoming);
+            }
+            variants.put(String.valueOf(size), variant);
+        }
+        return variants;
+    }
+
+    private String existingVariant(String picture, int size) {
+        for (String extension : new String[]{"jpg", "png"}) {
+            String variant = store.variant(picture, size, extension);
+            if (Files.exists(store.resolve(variant))) {
+                return variant;
+            }
+        }
+        return null;
+    }
+}
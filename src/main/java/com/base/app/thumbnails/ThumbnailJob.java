@@ -0,0 +1,10 @@
+package com.base.app.thumbnails;
+
+public record ThumbnailJob(String productId, String picture) {
+
+    public String id() {
+        String name = picture.substring(picture.lastIndexOf('/') + 1);
+        int dot = name.indexOf('.');
+        return productId.replaceAll("[^A-Za-z0-9_-]", "_") + "-" + (dot < 0 ? name : name.substring(0, dot));
+    }
+}
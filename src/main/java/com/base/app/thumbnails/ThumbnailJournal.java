@@ -0,0 +1,79 @@
+package com.base.app.thumbnails;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Component
+public class ThumbnailJournal {
+
+    static final String JOBS = ".jobs";
+
+    private static final String SUFFIX = ".job";
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailJournal.class);
+
+    @Value("${config.uploads.path}")
+    private String path;
+
+    private Path directory;
+
+    @PostConstruct
+    public void init() {
+        directory = Paths.get(path).toAbsolutePath().normalize().resolve(JOBS);
+    }
+
+    public Mono<Void> write(ThumbnailJob job) {
+        return Mono.fromCallable(() -> {
+            Files.createDirectories(directory);
+            Path temp = directory.resolve(UUID.randomUUID() + ".tmp");
+            Files.writeString(temp, job.productId() + "\n" + job.picture() + "\n", StandardCharsets.UTF_8);
+            return Files.move(temp, directory.resolve(job.id() + SUFFIX), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        })
+        .subscribeOn(Schedulers.boundedElastic())
+        .then();
+    }
+
+    public Mono<Void> delete(ThumbnailJob job) {
+        return Mono.fromCallable(() -> Files.deleteIfExists(directory.resolve(job.id() + SUFFIX)))
+        .subscribeOn(Schedulers.boundedElastic())
+        .then();
+    }
+
+    public Flux<ThumbnailJob> pending() {
+        return Flux.using(() -> Files.exists(directory) ? Files.list(directory) : Stream.<Path>empty(),
+        files -> Flux.fromStream(files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)))
+        .mapNotNull(this::read),
+        Stream::close)
+        .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private ThumbnailJob read(Path file) {
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (lines.size() >= 2) {
+                return new ThumbnailJob(lines.get(0), lines.get(1));
+            }
+            log.warn("Dropping malformed thumbnail job " + file.getFileName());
+            Files.deleteIfExists(file);
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.base.app.thumbnails;
+
+public class UnsupportedImageException extends RuntimeException {
+
+    public UnsupportedImageException(String picture) {
+        super("Picture " + picture + " is not a readable image");
+    }
+}
@@ -0,0 +1,93 @@
+package com.base.app.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RequestTrace {
+
+    private final String method;
+
+    private final String path;
+
+    private final Instant startedAt = Instant.now();
+
+    private final long startNanos = System.nanoTime();
+
+    private final List<Span> spans = new ArrayList<>(8);
+
+    private String route;
+
+    private int status;
+
+    private long durationNanos;
+
+    public RequestTrace(String method, String path) {
+        this.method = method;
+        this.path = path;
+    }
+
+    public void record(String name, long fromNanos, long toNanos) {
+        Span span = new Span(name, millis(fromNanos - startNanos), millis(toNanos - fromNanos));
+        synchronized (spans) {
+            spans.add(span);
+        }
+    }
+
+    void complete(String route, int status) {
+        this.route = route;
+        this.status = status;
+        this.durationNanos = System.nanoTime() - startNanos;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public double getDurationMs() {
+        return millis(durationNanos);
+    }
+
+    long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public List<Span> getSpans() {
+        synchronized (spans) {
+            return List.copyOf(spans);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder breakdown = new StringBuilder();
+        for (Span span : getSpans()) {
+            breakdown.append(breakdown.isEmpty() ? "" : " ").append(span.name()).append('=').append(span.durationMs()).append("ms");
+        }
+        return method + " " + (route != null ? route : path) + " " + status + " took " + getDurationMs() + "ms [" + breakdown + "]";
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 1000) / 1000.0;
+    }
+
+    public record Span(String name, double startMs, double durationMs) {
+    }
+}
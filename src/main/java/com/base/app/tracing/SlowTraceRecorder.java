@@ -0,0 +1,53 @@
+package com.base.app.tracing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class SlowTraceRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowTraceRecorder.class);
+
+    private final long thresholdNanos;
+
+    private final RequestTrace[] recent;
+
+    private int next;
+
+    private long recorded;
+
+    public SlowTraceRecorder(@Value("${config.tracing.slow-threshold:200ms}") Duration threshold,
+                             @Value("${config.tracing.buffer-size:100}") int bufferSize) {
+        this.thresholdNanos = threshold.toNanos();
+        this.recent = new RequestTrace[bufferSize];
+    }
+
+    public void complete(RequestTrace trace) {
+        if (trace.getDurationNanos() < thresholdNanos) {
+            return;
+        }
+        log.warn("Slow request {}", trace);
+        synchronized (recent) {
+            recent[next] = trace;
+            next = (next + 1) % recent.length;
+            recorded++;
+        }
+    }
+
+    public List<RequestTrace> recent() {
+        synchronized (recent) {
+            int size = (int) Math.min(recorded, recent.length);
+            List<RequestTrace> traces = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                traces.add(recent[(next - i + recent.length) % recent.length]);
+            }
+            return traces;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.base.app.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Endpoint(id = "slowtraces")
+public class SlowTracesEndpoint {
+
+    @Autowired
+    private SlowTraceRecorder recorder;
+
+    @ReadOperation
+    public List<RequestTrace> slowTraces() {
+        return recorder.recent();
+    }
+}
@@ -0,0 +1,37 @@
+package com.base.app.tracing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+public final class Traces {
+
+    private Traces() {
+    }
+
+    public static <T> Mono<T> stage(String name, Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            RequestTrace trace = current(context);
+            if (trace == null) {
+                return source;
+            }
+            long start = System.nanoTime();
+            return source.doFinally(signal -> trace.record(name, start, System.nanoTime()));
+        });
+    }
+
+    public static <T> Flux<T> stage(String name, Flux<T> source) {
+        return Flux.deferContextual(context -> {
+            RequestTrace trace = current(context);
+            if (trace == null) {
+                return source;
+            }
+            long start = System.nanoTime();
+            return source.doFinally(signal -> trace.record(name, start, System.nanoTime()));
+        });
+    }
+
+    static RequestTrace current(ContextView context) {
+        return context.getOrDefault(RequestTrace.class, null);
+    }
+}
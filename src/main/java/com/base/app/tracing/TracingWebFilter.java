@@ -0,0 +1,75 @@
+package com.base.app.tracing;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Component
+public class TracingWebFilter implements WebFilter {
+
+    @Value("${config.tracing.sample-rate:0}")
+    private double sampleRate;
+
+    @Autowired
+    private SlowTraceRecorder recorder;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return chain.filter(exchange);
+        }
+        RequestTrace trace = new RequestTrace(exchange.getRequest().getMethod().name(), exchange.getRequest().getPath().value());
+        ServerHttpResponseDecorator response = new TracedServerHttpResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build())
+        .contextWrite(context -> context.put(RequestTrace.class, trace))
+        .doFinally(signal -> {
+            PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            trace.complete(pattern != null ? pattern.getPatternString() : null, status != null ? status.value() : 200);
+            recorder.complete(trace);
+        });
+    }
+
+    private static class TracedServerHttpResponse extends ServerHttpResponseDecorator implements ZeroCopyHttpOutputMessage {
+
+        TracedServerHttpResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return Traces.stage("encode", super.writeWith(body));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return Traces.stage("encode", super.writeAndFlushWith(body));
+        }
+
+        @Override
+        public Mono<Void> writeWith(Path file, long position, long count) {
+            if (getDelegate() instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+                return Traces.stage("encode", zeroCopy.writeWith(file, position, count));
+            }
+            Flux<DataBuffer> content = DataBufferUtils.read(file, bufferFactory(), 8192);
+            return writeWith(DataBufferUtils.takeUntilByteCount(DataBufferUtils.skipUntilByteCount(content, position), count));
+        }
+    }
+}
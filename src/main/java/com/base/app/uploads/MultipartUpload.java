@@ -0,0 +1,67 @@
+package com.base.app.uploads;
+
+import com.base.app.storage.StoredPicture;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class MultipartUpload {
+
+    private final Map<String, String> fields = new HashMap<>();
+
+    private final Consumer<String> discarded;
+
+    private StoredPicture stored;
+
+    MultipartUpload(Consumer<String> discarded) {
+        this.discarded = discarded;
+    }
+
+    void field(String name, String value) {
+        fields.putIfAbsent(name, value);
+    }
+
+    void stored(StoredPicture stored) {
+        this.stored = stored;
+    }
+
+    public String getField(String name) {
+        return fields.get(name);
+    }
+
+    public Double getDoubleField(String name) {
+        String value = fields.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public boolean hasFile() {
+        return stored != null;
+    }
+
+    public String getPicture() {
+        return stored != null ? stored.picture() : null;
+    }
+
+    public File getFile() {
+        return stored != null ? stored.file().toFile() : null;
+    }
+
+    public long getSize() {
+        return stored != null ? stored.size() : 0;
+    }
+
+    public void discard() {
+        if (stored != null) {
+            discarded.accept(stored.picture());
+        }
+    }
+}
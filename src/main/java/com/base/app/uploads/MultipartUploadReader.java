@@ -0,0 +1,65 @@
+package com.base.app.uploads;
+
+import com.base.app.storage.PictureCollector;
+import com.base.app.storage.PictureStore;
+import com.base.app.storage.StoredPicture;
+import com.base.app.tracing.Traces;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.FormPartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class MultipartUploadReader {
+
+    private static final String FILE_PART = "file";
+
+    @Autowired
+    private PictureStore pictureStore;
+
+    @Autowired
+    private PictureCollector pictureCollector;
+
+    @Value("${config.uploads.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    public Mono<MultipartUpload> read(Flux<PartEvent> events) {
+        MultipartUpload upload = new MultipartUpload(pictureCollector::release);
+        return events.windowUntil(PartEvent::isLast)
+        .concatMap(part -> part.switchOnFirst((signal, partEvents) -> {
+            PartEvent first = signal.get();
+            if (first instanceof FilePartEvent file && FILE_PART.equals(file.name()) && !upload.hasFile()) {
+                return Traces.stage("file.write", store(file.filename(), partEvents.map(PartEvent::content)))
+                .doOnNext(upload::stored)
+                .then();
+            }
+            if (first instanceof FormPartEvent form) {
+                upload.field(form.name(), form.value());
+            }
+            return partEvents.doOnNext(event -> DataBufferUtils.release(event.content())).then();
+        }))
+        .then(Mono.just(upload))
+        .doOnError(e -> upload.discard())
+        .doOnCancel(upload::discard);
+    }
+
+    public Mono<StoredPicture> store(String filename, Flux<DataBuffer> content) {
+        AtomicLong size = new AtomicLong();
+        long limit = maxFileSize.toBytes();
+        return pictureStore.store(filename, content.doOnNext(buffer -> {
+            if (size.addAndGet(buffer.readableByteCount()) > limit) {
+                DataBufferUtils.release(buffer);
+                throw new UploadTooLargeException(filename, maxFileSize);
+            }
+        }));
+    }
+}
@@ -0,0 +1,100 @@
+package com.base.app.uploads;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+@Component
+public class UploadLimiter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${config.uploads.max-concurrent:16}")
+    private int maxConcurrent;
+
+    @Value("${config.uploads.max-queued:64}")
+    private int maxQueued;
+
+    private final Deque<MonoSink<Boolean>> waiting = new ArrayDeque<>();
+
+    private int active;
+
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        meterRegistry.gauge("uploads.active", this, limiter -> limiter.active());
+        meterRegistry.gauge("uploads.queued", this, limiter -> limiter.queued());
+        rejected = meterRegistry.counter("uploads.rejected");
+    }
+
+    public <T> Mono<T> limit(Mono<T> upload) {
+        return Mono.usingWhen(acquire(), permit -> upload,
+        permit -> Mono.fromRunnable(this::release),
+        (permit, error) -> Mono.fromRunnable(this::release),
+        permit -> Mono.fromRunnable(this::release));
+    }
+
+    private Mono<Boolean> acquire() {
+        return Mono.create(sink -> {
+            boolean granted;
+            synchronized (this) {
+                granted = active < maxConcurrent;
+                if (granted) {
+                    active++;
+                } else if (waiting.size() < maxQueued) {
+                    waiting.add(sink);
+                    sink.onCancel(() -> abandon(sink));
+                    return;
+                }
+            }
+            if (granted) {
+                sink.success(true);
+            } else {
+                rejected.increment();
+                sink.error(new UploadRejectedException(maxConcurrent, maxQueued));
+            }
+        });
+    }
+
+    private void abandon(MonoSink<Boolean> sink) {
+        boolean stillWaiting;
+        synchronized (this) {
+            stillWaiting = waiting.remove(sink);
+        }
+        if (!stillWaiting) {
+            // the permit was handed over after the waiter was cancelled, so it was dropped
+            release();
+        }
+    }
+
+    private void release() {
+        MonoSink<Boolean> next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                active--;
+            }
+        }
+        if (next != null) {
+            next.success(true);
+        }
+    }
+
+    synchronized int active() {
+        return active;
+    }
+
+    synchronized int queued() {
+        return waiting.size();
+    }
+}
@@ -0,0 +1,8 @@
+package com.base.app.uploads;
+
+public class UploadRejectedException extends RuntimeException {
+
+    public UploadRejectedException(int maxConcurrent, int maxQueued) {
+        super("Too many uploads in progress (" + maxConcurrent + " running, " + maxQueued + " queued)");
+    }
+}
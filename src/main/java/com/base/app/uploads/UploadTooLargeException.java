@@ -0,0 +1,10 @@
+package com.base.app.uploads;
+
+import org.springframework.util.unit.DataSize;
+
+public class UploadTooLargeException extends RuntimeException {
+
+    public UploadTooLargeException(String filename, DataSize maxFileSize) {
+        super("File " + filename + " exceeds the maximum size of " + maxFileSize.toKilobytes() + "KB");
+    }
+}
@@ -0,0 +1,152 @@
+package com.base.app.warmup;
+
+import com.base.app.Main;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class JitWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(JitWarmup.class);
+
+    private static final String VALID_PRODUCT = "{\"name\":\"Warm-up %d\",\"price\":%d.5,\"category\":{\"id\":\"%s\",\"name\":\"warm-up\"}}";
+
+    private static final String INVALID_PRODUCT = "{\"name\":\" \",\"price\":null}";
+
+    private static final int ROUTES = 12;
+
+    @Value("${config.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${config.warmup.iterations:5000}")
+    private int iterations;
+
+    @Value("${config.warmup.time-budget:30s}")
+    private Duration timeBudget;
+
+    @Value("${config.warmup.concurrency:8}")
+    private int concurrency;
+
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        if (AotDetector.useGeneratedArtifacts()) {
+            log.warn("Skipping warm-up: the in-memory sandbox cannot be started from AOT-processed bean definitions");
+            return;
+        }
+        long start = System.nanoTime();
+        Path uploads;
+        try {
+            uploads = Files.createTempDirectory("warmup-uploads");
+        } catch (IOException e) {
+            log.warn("Skipping warm-up: cannot create a sandbox uploads directory", e);
+            return;
+        }
+        try (ConfigurableApplicationContext sandbox = sandbox(uploads)) {
+            int port = ((ReactiveWebServerApplicationContext) sandbox).getWebServer().getPort();
+            WebClient client = WebClient.create("http://localhost:" + port);
+            List<String> ids = client.get().uri("/api/v2/products?limit=50")
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<Map<String, List<Map<String, Object>>>>() {
+            })
+            .map(page -> page.get("content").stream().map(product -> (String) product.get("id")).toList())
+            .block(timeBudget);
+            AtomicLong sent = new AtomicLong();
+            AtomicLong failed = new AtomicLong();
+            Flux.range(0, iterations)
+            .flatMap(i -> request(client, i, ids)
+            .doOnNext(status -> {
+                sent.incrementAndGet();
+                if (status >= 500) {
+                    failed.incrementAndGet();
+                }
+            })
+            .onErrorResume(e -> {
+                failed.incrementAndGet();
+                return Mono.empty();
+            }), concurrency)
+            .take(timeBudget)
+            .blockLast();
+            log.info("Warm-up finished: " + sent.get() + " requests (" + failed.get() + " failed) in "
+            + Duration.ofNanos(System.nanoTime() - start).toMillis() + " ms");
+        } catch (RuntimeException e) {
+            log.warn("Warm-up aborted: " + e.getMessage());
+        } finally {
+            try {
+                FileSystemUtils.deleteRecursively(uploads);
+            } catch (IOException e) {
+                log.warn("Could not delete the sandbox uploads directory " + uploads, e);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext sandbox(Path uploads) {
+        return new SpringApplicationBuilder(Main.class)
+        .web(WebApplicationType.REACTIVE)
+        .profiles("inmemory")
+        .properties(
+        "server.port=0",
+        "spring.main.banner-mode=off",
+        "spring.main.lazy-initialization=false",
+        "config.warmup.enabled=false",
+        "config.seed.mode=synthetic",
+        "config.seed.products=500",
+        "config.seed.categories=4",
+        "config.tracing.sample-rate=0",
+        "config.uploads.path=" + uploads.toAbsolutePath() + "/",
+        "config.thumbnails.enabled=false",
+        "config.storage.gc.enabled=false"
+        )
+        .run();
+    }
+
+    private Mono<Integer> request(WebClient client, int i, List<String> ids) {
+        String id = ids.get(i % ids.size());
+        String categoryId = "warm-up-" + (i % 4);
+        return switch (i % ROUTES) {
+            case 0 -> exchange(client, HttpMethod.GET, "/api/v2/products", null);
+            case 1 -> exchange(client, HttpMethod.GET, "/api/v2/products?limit=20&sort=price,desc", null);
+            case 2 -> exchange(client, HttpMethod.GET, "/api/v2/products/" + id, null);
+            case 3 -> exchange(client, HttpMethod.POST, "/api/v2/products", VALID_PRODUCT.formatted(i, i % 1000, categoryId));
+            case 4 -> exchange(client, HttpMethod.POST, "/api/v2/products", INVALID_PRODUCT);
+            case 5 -> exchange(client, HttpMethod.POST, "/api/v2/products/v2", VALID_PRODUCT.formatted(i, i % 1000, categoryId));
+            case 6 -> exchange(client, HttpMethod.POST, "/api/v2/products/v2", INVALID_PRODUCT);
+            case 7 -> exchange(client, HttpMethod.PUT, "/api/v2/products/" + id, VALID_PRODUCT.formatted(i, i % 1000, categoryId));
+            case 8 -> exchange(client, HttpMethod.GET, "/api/products", null);
+            case 9 -> exchange(client, HttpMethod.GET, "/api/products/" + id, null);
+            case 10 -> exchange(client, HttpMethod.POST, "/api/products", VALID_PRODUCT.formatted(i, i % 1000, categoryId));
+            default -> exchange(client, HttpMethod.GET, "/api/v2/products?minPrice=10&maxPrice=500&sort=name", null);
+        };
+    }
+
+    private Mono<Integer> exchange(WebClient client, HttpMethod method, String uri, String body) {
+        WebClient.RequestBodySpec request = client.method(method).uri(uri).accept(MediaType.APPLICATION_JSON);
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+        }
+        return request.exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+    }
+}
@@ -3,7 +3,7 @@ package com.base.app;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"config.seed.mode=none", "config.seed.ensure-indexes=false"})
 class AppApplicationTests {
 
 	@Test
@@ -0,0 +1,83 @@
+package com.base.app;
+
+import com.base.app.documents.Product;
+import com.base.app.pagination.ProductPage;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.services.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("inmemory")
+class InMemoryApplicationTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Autowired
+	private ProductService productService;
+
+	@Test
+	void createsAndReadsProductsWithoutMongo() {
+		String id = client.post().uri("/api/v2/products")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"name\":\"Sony Notebook\",\"price\":846.89,\"category\":{\"id\":\"c1\",\"name\":\"computation\"}}")
+		.exchange()
+		.expectStatus().isCreated()
+		.expectBody()
+		.jsonPath("$.version").isEqualTo(0)
+		.returnResult()
+		.getResponseHeaders()
+		.getLocation()
+		.getPath()
+		.replaceAll(".*/", "");
+
+		client.get().uri("/api/v2/products/{id}", id)
+		.exchange()
+		.expectStatus().isOk()
+		.expectBody()
+		.jsonPath("$.name").isEqualTo("Sony Notebook");
+
+		client.get().uri("/api/v2/products?sort=price,desc&limit=1")
+		.exchange()
+		.expectStatus().isOk()
+		.expectBody()
+		.jsonPath("$.content.length()").isEqualTo(1);
+	}
+
+	@Test
+	void pagesAcrossProductsWithNullSortKeys() {
+		String noPrice = productService.save(new Product("Unpriced Notebook", null)).block().getId();
+		String alsoNoPrice = productService.save(new Product("Unpriced Camera", null)).block().getId();
+		String noName = productService.save(new Product(null, 12.5)).block().getId();
+		List<String> all = productService.findAll().map(Product::getId).collectList().block();
+
+		// single-item pages put a cursor on every product, including the ones without a price or name
+		for (String sort : List.of("price", "price,desc", "name", "name,desc")) {
+			List<String> paged = pageThrough(sort, 1);
+			assertThat(paged).as(sort).hasSameSizeAs(all).containsExactlyInAnyOrderElementsOf(all).contains(noPrice, alsoNoPrice, noName);
+		}
+	}
+
+	private List<String> pageThrough(String sort, int limit) {
+		List<String> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			ProductPage page = productService.findPage(ProductPageRequest.of(sort, cursor, limit)).block();
+			page.getContent().forEach(p -> ids.add(p.getId()));
+			cursor = page.getNext();
+		} while (cursor != null);
+		return ids;
+	}
+}
@@ -0,0 +1,104 @@
+package com.base.app;
+
+import com.base.app.documents.Product;
+import com.base.app.pagination.ProductCursor;
+import com.base.app.pagination.ProductFilter;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.pagination.ProductSortKey;
+import com.base.app.repositories.MongoIndexInitializer;
+import com.base.app.repositories.ProductQueries;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest(properties = {"config.seed.mode=none", "config.seed.ensure-indexes=false"})
+class ProductQueryPlanTests {
+
+	private static final String CATEGORY_ID = "65b8f0c2a1b2c3d4e5f60718";
+
+	@Autowired
+	private ReactiveMongoTemplate mongoTemplate;
+
+	@Autowired
+	private MongoIndexInitializer indexInitializer;
+
+	private static Boolean mongoAvailable;
+
+	@BeforeEach
+	void requireMongo() {
+		if (mongoAvailable == null) {
+			try {
+				mongoAvailable = mongoTemplate.executeCommand("{ ping: 1 }").blockOptional(Duration.ofSeconds(3)).isPresent();
+			} catch (RuntimeException e) {
+				mongoAvailable = false;
+			}
+		}
+		assumeTrue(mongoAvailable, "MongoDB is not reachable");
+		indexInitializer.ensureIndexes().block();
+	}
+
+	static Stream<ProductPageRequest> searches() {
+		Product last = new Product("Sony", 177.89);
+		last.setId("65b8f0c2a1b2c3d4e5f60719");
+		String priceCursor = ProductCursor.after(last, ProductSortKey.PRICE, Sort.Direction.ASC).encode();
+		String nameCursor = ProductCursor.after(last, ProductSortKey.NAME, Sort.Direction.DESC).encode();
+		return Stream.of(
+		ProductPageRequest.of(null, null, 20),
+		ProductPageRequest.of("price", priceCursor, 20),
+		ProductPageRequest.of("name,desc", nameCursor, 20),
+		ProductPageRequest.of(ProductFilter.of("10", "500", null, null), "price", null, 20),
+		ProductPageRequest.of(ProductFilter.of("10", "500", null, null), "price", priceCursor, 20),
+		ProductPageRequest.of(ProductFilter.of(null, null, CATEGORY_ID, null), null, null, 20),
+		ProductPageRequest.of(ProductFilter.of("10", null, CATEGORY_ID, null), "price", null, 20),
+		ProductPageRequest.of(ProductFilter.of(null, null, CATEGORY_ID, null), "name", null, 20),
+		ProductPageRequest.of(ProductFilter.of(null, null, null, "Sony"), "name", null, 20),
+		ProductPageRequest.of(ProductFilter.of(null, null, null, "TV (4K)"), "name,desc", nameCursor, 20));
+	}
+
+	@ParameterizedTest
+	@MethodSource("searches")
+	void searchQueriesAreIndexed(ProductPageRequest request) {
+		Query query = ProductQueries.search(request).limit(request.getLimit());
+		MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Product.class);
+		QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+		Document filter = mapper.getMappedObject(query.getQueryObject(), entity);
+		Document sort = mapper.getMappedSort(query.getSortObject(), entity);
+
+		Document explain = mongoTemplate.getCollection("products")
+		.flatMap(collection -> Mono.from(collection.find(filter).sort(sort).limit(query.getLimit()).explain()))
+		.block();
+
+		Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+		assertThat(stages(winningPlan)).as("plan for %s sorted by %s", filter.toJson(), sort.toJson())
+		.contains("IXSCAN")
+		.doesNotContain("COLLSCAN");
+	}
+
+	private static List<String> stages(Object plan) {
+		if (plan instanceof Document document) {
+			Stream<String> own = document.containsKey("stage") ? Stream.of(document.getString("stage")) : Stream.empty();
+			return Stream.concat(own, document.values().stream().flatMap(value -> stages(value).stream())).toList();
+		}
+		if (plan instanceof List<?> list) {
+			return list.stream().flatMap(value -> stages(value).stream()).toList();
+		}
+		return List.of();
+	}
+
+}
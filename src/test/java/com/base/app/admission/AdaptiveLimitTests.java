@@ -0,0 +1,92 @@
+package com.base.app.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveLimitTests {
+
+	private static final long MILLIS = 1_000_000L;
+
+	@Test
+	void growsWhileLatencyStaysAtTheBaseline() {
+		AdaptiveLimit limit = new AdaptiveLimit(10, 2, 100, 1.5, 0.2, 0.9, 100);
+
+		for (int i = 0; i < 200; i++) {
+			saturate(limit, 10 * MILLIS);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(100);
+	}
+
+	@Test
+	void shrinksWhenLatencyClimbsAboveTheBaseline() {
+		AdaptiveLimit limit = new AdaptiveLimit(50, 2, 100, 1.5, 0.2, 0.9, 100);
+		for (int i = 0; i < 20; i++) {
+			saturate(limit, 10 * MILLIS);
+		}
+		int healthy = limit.getLimit();
+
+		saturate(limit, 100 * MILLIS);
+
+		assertThat(limit.getLimit()).isLessThan(healthy / 2);
+	}
+
+	@Test
+	void backsOffOnDropsButNeverBelowTheMinimum() {
+		AdaptiveLimit limit = new AdaptiveLimit(20, 3, 100, 1.5, 0.2, 0.5, 100);
+
+		limit.tryAcquire();
+		limit.onDropped();
+		assertThat(limit.getLimit()).isEqualTo(10);
+
+		for (int i = 0; i < 10; i++) {
+			limit.tryAcquire();
+			limit.onDropped();
+		}
+		assertThat(limit.getLimit()).isEqualTo(3);
+		assertThat(limit.getInFlight()).isZero();
+	}
+
+	@Test
+	void ignoresLatencyWhenFarBelowTheLimit() {
+		AdaptiveLimit limit = new AdaptiveLimit(20, 2, 100, 1.5, 0.2, 0.9, 100);
+
+		for (int i = 0; i < 50; i++) {
+			limit.tryAcquire();
+			limit.onSuccess(10 * MILLIS);
+		}
+
+		assertThat(limit.getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	void rejectsOnceTheLimitIsReached() {
+		AdaptiveLimit limit = new AdaptiveLimit(2, 1, 10, 1.5, 0.2, 0.9, 100);
+
+		assertThat(limit.tryAcquire()).isTrue();
+		assertThat(limit.tryAcquire()).isTrue();
+		assertThat(limit.tryAcquire()).isFalse();
+		limit.onIgnored();
+		assertThat(limit.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void rejectsInvalidBounds() {
+		assertThatThrownBy(() -> new AdaptiveLimit(10, 0, 10, 1.5, 0.2, 0.9, 100))
+		.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new AdaptiveLimit(10, 20, 10, 1.5, 0.2, 0.9, 100))
+		.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static void saturate(AdaptiveLimit limit, long latencyNanos) {
+		int admitted = 0;
+		while (limit.tryAcquire()) {
+			admitted++;
+		}
+		for (int i = 0; i < admitted; i++) {
+			limit.onSuccess(latencyNanos);
+		}
+	}
+}
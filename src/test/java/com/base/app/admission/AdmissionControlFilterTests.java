@@ -0,0 +1,142 @@
+package com.base.app.admission;
+
+import com.base.app.metrics.RouteMeters;
+import com.base.app.metrics.RouteTemplates;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final RouteTemplates templates = RouteTemplates.builder(registry)
+	.add(HttpMethod.GET, "/api/products/{id}")
+	.add(HttpMethod.POST, "/api/products")
+	.add(HttpMethod.GET, "/actuator/health")
+	.build();
+
+	private final AdmissionControlFilter filter = new AdmissionControlFilter();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(filter, "meterRegistry", registry);
+		ReflectionTestUtils.setField(filter, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		ReflectionTestUtils.setField(filter, "pathPrefix", "/api/");
+		ReflectionTestUtils.setField(filter, "readInitialLimit", 2);
+		ReflectionTestUtils.setField(filter, "readMaxLimit", 8);
+		ReflectionTestUtils.setField(filter, "writeInitialLimit", 1);
+		ReflectionTestUtils.setField(filter, "writeMaxLimit", 4);
+		ReflectionTestUtils.setField(filter, "minLimit", 1);
+		ReflectionTestUtils.setField(filter, "tolerance", 1.5);
+		ReflectionTestUtils.setField(filter, "smoothing", 0.2);
+		ReflectionTestUtils.setField(filter, "backoffRatio", 0.9);
+		ReflectionTestUtils.setField(filter, "baselineWindow", 100);
+		ReflectionTestUtils.setField(filter, "retryAfter", Duration.ofSeconds(2));
+	}
+
+	@Test
+	void shedsRequestsOnceTheRouteIsSaturated() {
+		Sinks.Empty<Void> slow = Sinks.empty();
+		WebFilterChain hanging = exchange -> slow.asMono();
+		Disposable first = filter.filter(exchange(HttpMethod.GET, "/api/products/1"), hanging).subscribe();
+		Disposable second = filter.filter(exchange(HttpMethod.GET, "/api/products/2"), hanging).subscribe();
+
+		MockServerWebExchange rejected = exchange(HttpMethod.GET, "/api/products/3");
+		filter.filter(rejected, hanging).block(Duration.ofSeconds(5));
+
+		assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+		assertThat(rejected.getResponse().getBodyAsString().block(Duration.ofSeconds(5))).contains("\"status\":503");
+		assertThat(registry.get("admission.rejected").tags("uri", "/api/products/{id}", "type", "read").counter().count())
+		.isEqualTo(1);
+		assertThat(registry.get("admission.limit").tags("uri", "/api/products/{id}", "type", "read").gauge().value())
+		.isEqualTo(2);
+
+		slow.tryEmitEmpty();
+		first.dispose();
+		second.dispose();
+		MockServerWebExchange admitted = exchange(HttpMethod.GET, "/api/products/3");
+		filter.filter(admitted, exchange -> Mono.empty()).block(Duration.ofSeconds(5));
+		assertThat(admitted.getResponse().getStatusCode()).isNull();
+	}
+
+	@Test
+	void keepsReadsAndWritesApart() {
+		Sinks.Empty<Void> slow = Sinks.empty();
+		Disposable write = filter.filter(exchange(HttpMethod.POST, "/api/products"), exchange -> slow.asMono()).subscribe();
+
+		MockServerWebExchange secondWrite = exchange(HttpMethod.POST, "/api/products");
+		filter.filter(secondWrite, exchange -> Mono.empty()).block(Duration.ofSeconds(5));
+		MockServerWebExchange read = exchange(HttpMethod.GET, "/api/products/1");
+		filter.filter(read, exchange -> Mono.empty()).block(Duration.ofSeconds(5));
+
+		assertThat(secondWrite.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(read.getResponse().getStatusCode()).isNull();
+		write.dispose();
+	}
+
+	@Test
+	void endsTheLatencySampleWhenTheResponseIsCommitted() throws Exception {
+		MockServerWebExchange streaming = exchange(HttpMethod.GET, "/api/products/1");
+		filter.filter(streaming, exchange -> exchange.getResponse().setComplete().then(Mono.delay(Duration.ofMillis(300))).then())
+		.block(Duration.ofSeconds(5));
+
+		AdaptiveLimit limit = released(filter.getLimits().get("GET /api/products/{id}").limit());
+		assertThat(limit.getBaseline()).isPositive().isLessThan(Duration.ofMillis(200).toNanos());
+	}
+
+	@Test
+	void doesNotSampleClientPacedUploads() throws Exception {
+		MockServerWebExchange upload = MockServerWebExchange.from(MockServerHttpRequest.post("/api/products")
+		.contentType(MediaType.MULTIPART_FORM_DATA));
+		upload.getAttributes().put(RouteMeters.ATTRIBUTE, templates.match(HttpMethod.POST, upload.getRequest().getPath().pathWithinApplication()));
+		filter.filter(upload, exchange -> Mono.delay(Duration.ofMillis(50)).then()).block(Duration.ofSeconds(5));
+
+		AdaptiveLimit limit = released(filter.getLimits().get("POST /api/products").limit());
+		assertThat(limit.getBaseline()).isZero();
+	}
+
+	@Test
+	void leavesRoutesOutsideTheApiAlone() {
+		for (int i = 0; i < 5; i++) {
+			MockServerWebExchange health = exchange(HttpMethod.GET, "/actuator/health");
+			filter.filter(health, exchange -> Mono.never()).subscribe();
+			assertThat(health.getResponse().getStatusCode()).isNull();
+		}
+		assertThat(registry.find("admission.limit").gauges()).isEmpty();
+	}
+
+	// the permit is returned in doFinally, which runs just after block() has seen the completion
+	private static AdaptiveLimit released(AdaptiveLimit limit) throws InterruptedException {
+		for (int attempt = 0; attempt < 100 && limit.getInFlight() > 0; attempt++) {
+			Thread.sleep(10);
+		}
+		assertThat(limit.getInFlight()).isZero();
+		return limit;
+	}
+
+	private MockServerWebExchange exchange(HttpMethod method, String path) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(method, path));
+		RouteMeters route = templates.match(method, exchange.getRequest().getPath().pathWithinApplication());
+		exchange.getAttributes().put(RouteMeters.ATTRIBUTE, route);
+		return exchange;
+	}
+}
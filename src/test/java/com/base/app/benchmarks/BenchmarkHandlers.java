@@ -0,0 +1,21 @@
+package com.base.app.benchmarks;
+
+import com.base.app.handlers.ProductHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+final class BenchmarkHandlers {
+
+    private BenchmarkHandlers() {
+    }
+
+    static ProductHandler productHandler(StubProductService service) {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        ProductHandler handler = new ProductHandler();
+        ReflectionTestUtils.setField(handler, "service", service);
+        ReflectionTestUtils.setField(handler, "validator", validator);
+        ReflectionTestUtils.setField(handler, "maxBatchSize", 100);
+        return handler;
+    }
+}
@@ -0,0 +1,58 @@
+package com.base.app.benchmarks;
+
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonEncodingBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<Product> products;
+
+    private List<Category> categories;
+
+    private byte[] encodedProducts;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        StubProductService service = new StubProductService(size);
+        products = service.products();
+        categories = service.categories();
+        encodedProducts = objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] encodeProducts() throws Exception {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] encodeCategories() throws Exception {
+        return objectMapper.writeValueAsBytes(categories);
+    }
+
+    @Benchmark
+    public Product[] decodeProducts() throws Exception {
+        return objectMapper.readValue(encodedProducts, Product[].class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.base.app.benchmarks;
+
+import com.base.app.storage.PictureCollector;
+import com.base.app.storage.PictureStore;
+import com.base.app.uploads.MultipartUpload;
+import com.base.app.uploads.MultipartUploadReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.FormPartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultipartUploadBenchmark {
+
+    @Param({"8192", "1048576"})
+    private int fileSize;
+
+    private MultipartUploadReader reader;
+
+    private Path uploads;
+
+    private byte[] chunk;
+
+    @Setup
+    public void setUp() throws Exception {
+        uploads = Files.createTempDirectory("uploads");
+        PictureStore store = new PictureStore();
+        ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "path", uploads.toString());
+        store.init();
+        reader = new MultipartUploadReader();
+        ReflectionTestUtils.setField(reader, "pictureStore", store);
+        ReflectionTestUtils.setField(reader, "pictureCollector", new PictureCollector());
+        ReflectionTestUtils.setField(reader, "maxFileSize", DataSize.ofMegabytes(10));
+        chunk = new byte[8192];
+        new Random(42).nextBytes(chunk);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileSystemUtils.deleteRecursively(uploads);
+    }
+
+    @Benchmark
+    public long readUpload() throws Exception {
+        Flux<PartEvent> events = Flux.concat(
+        FormPartEvent.create("name", "Sony Notebook"),
+        FormPartEvent.create("price", "846.89"),
+        FormPartEvent.create("category.id", "000000000000000000000001"),
+        FormPartEvent.create("category.name", "computation"),
+        FilePartEvent.create("file", "picture.png", MediaType.IMAGE_PNG, Flux.range(0, fileSize / chunk.length)
+        .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(chunk))));
+        MultipartUpload upload = reader.read(events).block();
+        Files.deleteIfExists(upload.getFile().toPath());
+        return upload.getSize();
+    }
+}
@@ -0,0 +1,82 @@
+package com.base.app.benchmarks;
+
+import com.base.app.RouterFunctionConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProductHandlerBenchmark {
+
+    private static final String VALID_PRODUCT = "{\"name\":\"Sony Notebook\",\"price\":846.89,\"category\":{\"id\":\"000000000000000000000001\",\"name\":\"computation\"}}";
+
+    private static final String INVALID_PRODUCT = "{\"name\":\" \",\"price\":0}";
+
+    @Param({"100"})
+    private int size;
+
+    private WebTestClient client;
+
+    private String productId;
+
+    @Setup
+    public void setUp() {
+        StubProductService service = new StubProductService(size);
+        productId = service.firstId();
+        client = WebTestClient.bindToRouterFunction(new RouterFunctionConfig().routes(BenchmarkHandlers.productHandler(service)))
+        .configureClient()
+        .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+        .build();
+    }
+
+    @Benchmark
+    public byte[] getAllProducts() {
+        return client.get().uri("/api/v2/products").exchange().expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] getProductById() {
+        return client.get().uri("/api/v2/products/{id}", productId).exchange().expectBody().returnResult().getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] createValid() {
+        return post("/api/v2/products", VALID_PRODUCT);
+    }
+
+    @Benchmark
+    public byte[] createInvalid() {
+        return post("/api/v2/products", INVALID_PRODUCT);
+    }
+
+    @Benchmark
+    public byte[] createv2Valid() {
+        return post("/api/v2/products/v2", VALID_PRODUCT);
+    }
+
+    @Benchmark
+    public byte[] createv2Invalid() {
+        return post("/api/v2/products/v2", INVALID_PRODUCT);
+    }
+
+    private byte[] post(String uri, String body) {
+        return client.post().uri(uri)
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(body)
+        .exchange()
+        .expectBody()
+        .returnResult()
+        .getResponseBody();
+    }
+}
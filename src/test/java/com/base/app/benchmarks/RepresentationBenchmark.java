@@ -0,0 +1,85 @@
+package com.base.app.benchmarks;
+
+import com.base.app.documents.Product;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepresentationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String representation;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<Product> products;
+
+    private byte[] encodedProducts;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (representation) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+        products = new StubProductService(size).products();
+        encodedProducts = objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] encodeProducts(Payload payload) throws Exception {
+        byte[] encoded = objectMapper.writeValueAsBytes(products);
+        payload.record(encoded.length);
+        return encoded;
+    }
+
+    @Benchmark
+    public Product[] decodeProducts(Payload payload) throws Exception {
+        payload.record(encodedProducts.length);
+        return objectMapper.readValue(encodedProducts, Product[].class);
+    }
+
+    // JMH sums event counters over iterations and forks, the payload size is bytes / calls
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        public long bytes;
+
+        public long calls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            calls = 0;
+        }
+
+        void record(int length) {
+            bytes += length;
+            calls++;
+        }
+    }
+}
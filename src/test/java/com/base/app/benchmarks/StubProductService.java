@@ -0,0 +1,147 @@
+package com.base.app.benchmarks;
+
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import com.base.app.pagination.ProductPage;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.repositories.BulkInsertResult;
+import com.base.app.services.ProductService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+class StubProductService implements ProductService {
+
+    private final Map<String, Product> products = new LinkedHashMap<>();
+
+    private final List<Category> categories = new ArrayList<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    StubProductService(int size) {
+        for (String name : List.of("electronics", "sport", "computation", "furniture")) {
+            Category category = new Category(name);
+            category.setId(String.format("%024x", categories.size() + 1));
+            categories.add(category);
+        }
+        for (int i = 0; i < size; i++) {
+            Product product = new Product("Product " + i, 10.0 + i, categories.get(i % categories.size()));
+            product.setId(String.format("%024x", sequence.incrementAndGet()));
+            product.setCreateAt(new Date(1700000000000L + i));
+            product.setVersion(0L);
+            products.put(product.getId(), product);
+        }
+    }
+
+    List<Product> products() {
+        return List.copyOf(products.values());
+    }
+
+    List<Category> categories() {
+        return List.copyOf(categories);
+    }
+
+    String firstId() {
+        return products.keySet().iterator().next();
+    }
+
+    @Override
+    public Flux<Product> findAll() {
+        return Flux.fromIterable(products.values());
+    }
+
+    @Override
+    public Flux<Product> search(ProductPageRequest searchRequest) {
+        return findAll();
+    }
+
+    @Override
+    public Mono<ProductPage> findPage(ProductPageRequest pageRequest) {
+        return findAll().take(pageRequest.getLimit()).collectList().map(content -> new ProductPage(content, null));
+    }
+
+    @Override
+    public Flux<Product> export(String afterId, int batchSize) {
+        return findAll();
+    }
+
+    @Override
+    public Flux<Product> findAllWithNameUpperCase() {
+        return findAll();
+    }
+
+    @Override
+    public Flux<Product> findAllWithNameUpperCaseRepeat() {
+        return findAll();
+    }
+
+    @Override
+    public Mono<Product> findById(String id) {
+        return Mono.justOrEmpty(products.get(id));
+    }
+
+    @Override
+    public Flux<Product> findAllById(Iterable<String> ids) {
+        return Flux.fromIterable(ids).mapNotNull(products::get);
+    }
+
+    @Override
+    public Mono<Product> save(Product product) {
+        if (product.getId() == null) {
+            product.setId(String.format("%024x", sequence.incrementAndGet()));
+        }
+        return Mono.just(product);
+    }
+
+    @Override
+    public Mono<BulkInsertResult> insertAll(List<Product> products) {
+        return Mono.just(new BulkInsertResult(products.size(), Map.of()));
+    }
+
+    @Override
+    public Mono<Product> update(String id, Product changes) {
+        return findById(id);
+    }
+
+    @Override
+    public Mono<Boolean> updateVariants(String id, String picture, Map<String, String> variants) {
+        return Mono.just(false);
+    }
+
+    @Override
+    public Mono<Void> delete(Product product) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Boolean> deleteById(String id) {
+        return Mono.just(products.containsKey(id));
+    }
+
+    @Override
+    public Flux<Category> findAllCategories() {
+        return Flux.fromIterable(categories);
+    }
+
+    @Override
+    public Mono<Category> findCategoryById(String id) {
+        return findAllCategories().filter(category -> category.getId().equals(id)).next();
+    }
+
+    @Override
+    public Mono<Category> saveCategory(Category category) {
+        return Mono.just(category);
+    }
+
+    @Override
+    public Optional<String> collectionVersion() {
+        return Optional.of("stub.0");
+    }
+}
@@ -0,0 +1,49 @@
+package com.base.app.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaffeineReactiveCacheTests {
+
+	private final ReactiveCache<String, String> cache = new CaffeineReactiveCache<>(Caffeine.newBuilder().buildAsync());
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private Mono<String> load(String key) {
+		loads.incrementAndGet();
+		return key.equals("missing") ? Mono.empty() : Mono.just("value-" + key);
+	}
+
+	@Test
+	void loadsOnceAndServesHitsFromCache() {
+		StepVerifier.create(cache.get("a", this::load)).expectNext("value-a").verifyComplete();
+		StepVerifier.create(cache.get("a", this::load)).expectNext("value-a").verifyComplete();
+
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void doesNotCacheEmptyResults() {
+		StepVerifier.create(cache.get("missing", this::load)).verifyComplete();
+		StepVerifier.create(cache.get("missing", this::load)).verifyComplete();
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void putAndInvalidateReplaceCachedValue() {
+		cache.put("a", "saved");
+		StepVerifier.create(cache.get("a", this::load)).expectNext("saved").verifyComplete();
+
+		cache.invalidate("a");
+		StepVerifier.create(cache.get("a", this::load)).expectNext("value-a").verifyComplete();
+		assertThat(loads).hasValue(1);
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.base.app.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final SingleFlight<String, String> flights = new SingleFlight<>("test", true, registry);
+
+	@Test
+	void concurrentCallersShareOneExecution() {
+		AtomicInteger loads = new AtomicInteger();
+		Sinks.One<String> result = Sinks.one();
+
+		Mono<String> first = flights.execute("a", k -> {
+			loads.incrementAndGet();
+			return result.asMono();
+		});
+		Mono<String> second = flights.execute("a", k -> {
+			loads.incrementAndGet();
+			return result.asMono();
+		});
+
+		StepVerifier.create(Mono.zip(first, second))
+		.then(() -> result.tryEmitValue("value"))
+		.assertNext(pair -> assertThat(pair.getT1()).isEqualTo("value").isEqualTo(pair.getT2()))
+		.verifyComplete();
+
+		assertThat(loads).hasValue(1);
+		assertThat(registry.get("singleflight.requests").tag("result", "coalesced").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void completedFlightIsNotReused() {
+		AtomicInteger loads = new AtomicInteger();
+
+		StepVerifier.create(flights.execute("a", k -> Mono.fromCallable(loads::incrementAndGet).map(String::valueOf)))
+		.expectNext("1")
+		.verifyComplete();
+		StepVerifier.create(flights.execute("a", k -> Mono.fromCallable(loads::incrementAndGet).map(String::valueOf)))
+		.expectNext("2")
+		.verifyComplete();
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.base.app.codecs;
+
+import com.base.app.documents.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = "config.seed.mode=sample")
+@AutoConfigureWebTestClient
+@ActiveProfiles("inmemory")
+class ContentNegotiationTests {
+
+	private static final String PRODUCT = "{\"name\":\"Sony Notebook\",\"price\":846.89,\"category\":{\"id\":\"c1\",\"name\":\"computation\"}}";
+
+	private final ObjectMapper cbor = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+
+	private final ObjectMapper smile = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+
+	@Autowired
+	private WebTestClient client;
+
+	@Test
+	void jsonStaysTheDefault() {
+		client.get().uri("/api/v2/products")
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+
+		client.get().uri("/api/products")
+		.accept(MediaType.ALL)
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+	}
+
+	@Test
+	void streamsProductListsAsCbor() throws Exception {
+		byte[] body = client.get().uri("/api/v2/products")
+		.accept(MediaType.APPLICATION_CBOR)
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().contentType(MediaType.APPLICATION_CBOR)
+		.expectBody(byte[].class)
+		.returnResult()
+		.getResponseBody();
+
+		Product[] products = cbor.readValue(body, Product[].class);
+		assertFalse(products.length == 0);
+	}
+
+	@Test
+	void streamsControllerListsAsSmile() throws Exception {
+		byte[] body = client.get().uri("/api/products")
+		.accept(ProductMediaTypes.APPLICATION_SMILE)
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().contentType(ProductMediaTypes.APPLICATION_SMILE)
+		.expectBody(byte[].class)
+		.returnResult()
+		.getResponseBody();
+
+		Product[] products = smile.readValue(body, Product[].class);
+		assertFalse(products.length == 0);
+	}
+
+	@Test
+	void acceptsAndReturnsCborBodies() throws Exception {
+		byte[] request = cbor.writeValueAsBytes(new ObjectMapper().readTree(PRODUCT));
+		byte[] body = client.post().uri("/api/v2/products/v2")
+		.contentType(MediaType.APPLICATION_CBOR)
+		.accept(MediaType.APPLICATION_CBOR)
+		.bodyValue(request)
+		.exchange()
+		.expectStatus().isCreated()
+		.expectHeader().contentType(MediaType.APPLICATION_CBOR)
+		.expectBody(byte[].class)
+		.returnResult()
+		.getResponseBody();
+
+		Map<?, ?> response = cbor.readValue(body, Map.class);
+		assertEquals("Sony Notebook", ((Map<?, ?>) response.get("product")).get("name"));
+	}
+}
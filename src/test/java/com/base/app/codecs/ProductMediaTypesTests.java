@@ -0,0 +1,31 @@
+package com.base.app.codecs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductMediaTypesTests {
+
+	@Test
+	void defaultsToJson() {
+		assertEquals(MediaType.APPLICATION_JSON, ProductMediaTypes.negotiate(List.of()));
+		assertEquals(MediaType.APPLICATION_JSON, ProductMediaTypes.negotiate(MediaType.parseMediaTypes("*/*")));
+		assertEquals(MediaType.APPLICATION_JSON, ProductMediaTypes.negotiate(MediaType.parseMediaTypes("text/html")));
+	}
+
+	@Test
+	void picksRequestedBinaryType() {
+		assertEquals(MediaType.APPLICATION_CBOR, ProductMediaTypes.negotiate(MediaType.parseMediaTypes("application/cbor")));
+		assertEquals(ProductMediaTypes.APPLICATION_SMILE, ProductMediaTypes.negotiate(MediaType.parseMediaTypes("application/x-jackson-smile, */*;q=0.1")));
+	}
+
+	@Test
+	void honorsQualityValues() {
+		assertEquals(MediaType.APPLICATION_CBOR, ProductMediaTypes.negotiate(MediaType.parseMediaTypes("application/json;q=0.5, application/cbor")));
+		assertEquals(MediaType.APPLICATION_CBOR, ProductMediaTypes.negotiate(MediaType.parseMediaTypes("application/json;q=0, application/*")));
+		assertEquals(ProductMediaTypes.APPLICATION_SMILE, ProductMediaTypes.negotiate(MediaType.parseMediaTypes("application/json;q=0, application/cbor;q=0, */*")));
+	}
+}
@@ -0,0 +1,66 @@
+package com.base.app.codecs;
+
+import com.base.app.documents.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingSmileEncoderTests {
+
+	private final ObjectMapper smile = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+
+	private final StreamingSmileEncoder encoder = new StreamingSmileEncoder(smile, ProductMediaTypes.APPLICATION_SMILE);
+
+	@Test
+	void emitsItemsBeforeTheSourceCompletes() throws Exception {
+		Sinks.Many<Product> source = Sinks.many().unicast().onBackpressureBuffer();
+		ByteArrayOutputStream document = new ByteArrayOutputStream();
+
+		StepVerifier.create(encode(source.asFlux()))
+		.consumeNextWith(buffer -> append(document, buffer))
+		.then(() -> source.tryEmitNext(new Product("Sony Notebook", 846.89)))
+		.consumeNextWith(buffer -> append(document, buffer))
+		.then(() -> source.tryEmitNext(new Product("Sony Camera", 177.89)))
+		.consumeNextWith(buffer -> append(document, buffer))
+		.then(source::tryEmitComplete)
+		.consumeNextWith(buffer -> append(document, buffer))
+		.verifyComplete();
+
+		Product[] products = smile.readValue(document.toByteArray(), Product[].class);
+		assertEquals(2, products.length);
+		assertEquals("Sony Notebook", products[0].getName());
+		assertEquals("Sony Camera", products[1].getName());
+	}
+
+	@Test
+	void encodesAnEmptyFluxAsAnEmptyArray() throws Exception {
+		ByteArrayOutputStream document = new ByteArrayOutputStream();
+		encode(Flux.empty()).doOnNext(buffer -> append(document, buffer)).blockLast();
+
+		assertEquals(0, smile.readValue(document.toByteArray(), Product[].class).length);
+	}
+
+	private Flux<DataBuffer> encode(Flux<Product> products) {
+		return encoder.encode(products, DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(Product.class),
+		ProductMediaTypes.APPLICATION_SMILE, Map.of());
+	}
+
+	private static void append(ByteArrayOutputStream document, DataBuffer buffer) {
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		DataBufferUtils.release(buffer);
+		document.writeBytes(bytes);
+	}
+}
@@ -0,0 +1,151 @@
+package com.base.app.etags;
+
+import com.base.app.documents.Product;
+import com.base.app.services.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "server.compression.min-response-size=1")
+@ActiveProfiles("inmemory")
+class ConditionalRequestTests {
+
+	private static final String PRODUCT = "{\"name\":\"Sony Notebook\",\"price\":846.89,\"category\":{\"id\":\"c1\",\"name\":\"computation\"}}";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private WebTestClient client;
+
+	@Autowired
+	private ProductService productService;
+
+	@Test
+	void productRevalidatesUntilEdited() {
+		String id = create();
+		String etag = etag("/api/v2/products/" + id, MediaType.APPLICATION_JSON);
+
+		client.get().uri("/api/v2/products/{id}", id)
+		.header(HttpHeaders.IF_NONE_MATCH, etag)
+		.exchange()
+		.expectStatus().isNotModified()
+		.expectBody().isEmpty();
+
+		client.put().uri("/api/v2/products/{id}", id)
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"price\":900.0}")
+		.exchange()
+		.expectStatus().isCreated();
+
+		client.get().uri("/api/v2/products/{id}", id)
+		.header(HttpHeaders.IF_NONE_MATCH, etag)
+		.exchange()
+		.expectStatus().isOk();
+	}
+
+	@Test
+	void collectionRevalidatesUntilWritten() {
+		String etag = etag("/api/v2/products?limit=5", MediaType.APPLICATION_JSON);
+
+		client.get().uri("/api/v2/products?limit=5")
+		.header(HttpHeaders.IF_NONE_MATCH, etag)
+		.exchange()
+		.expectStatus().isNotModified();
+
+		client.get().uri("/api/products")
+		.header(HttpHeaders.IF_NONE_MATCH, etag("/api/products", MediaType.APPLICATION_JSON))
+		.exchange()
+		.expectStatus().isNotModified();
+
+		create();
+
+		client.get().uri("/api/v2/products?limit=5")
+		.header(HttpHeaders.IF_NONE_MATCH, etag)
+		.exchange()
+		.expectStatus().isOk();
+	}
+
+	@Test
+	void collectionTagIsStaleAsSoonAsTheWriteIsAnswered() {
+		String id = create();
+		String etag = etag("/api/v2/products?limit=5", MediaType.APPLICATION_JSON);
+		Product changes = new Product();
+		changes.setPrice(900.0);
+
+		assertEquals(HttpStatus.OK, productService.save(new Product("Sony Camera", 177.89)).map(saved -> revalidate(etag)).block());
+		String refreshed = etag("/api/v2/products?limit=5", MediaType.APPLICATION_JSON);
+		assertEquals(HttpStatus.OK, productService.update(id, changes).map(updated -> revalidate(refreshed)).block());
+		String latest = etag("/api/v2/products?limit=5", MediaType.APPLICATION_JSON);
+		assertEquals(HttpStatus.OK, productService.deleteById(id).map(deleted -> revalidate(latest)).block());
+	}
+
+	@Test
+	void representationsHaveDistinctTags() {
+		String id = create();
+		assertNotEquals(etag("/api/v2/products/" + id, MediaType.APPLICATION_JSON),
+		etag("/api/v2/products/" + id, MediaType.APPLICATION_CBOR));
+	}
+
+	@Test
+	void compressesWhenAccepted() throws Exception {
+		HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		URI uri = URI.create("http://localhost:" + port + "/api/v2/products");
+
+		HttpResponse<byte[]> gzip = http.send(HttpRequest.newBuilder(uri).header(HttpHeaders.ACCEPT_ENCODING, "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+		assertEquals(Optional.of("gzip"), gzip.headers().firstValue(HttpHeaders.CONTENT_ENCODING));
+
+		HttpResponse<byte[]> identity = http.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+		assertEquals(Optional.empty(), identity.headers().firstValue(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	private String create() {
+		return client.post().uri("/api/v2/products")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue(PRODUCT)
+		.exchange()
+		.expectStatus().isCreated()
+		.returnResult(Void.class)
+		.getResponseHeaders()
+		.getLocation()
+		.getPath()
+		.replaceAll(".*/", "");
+	}
+
+	private HttpStatusCode revalidate(String etag) {
+		return client.get().uri("/api/v2/products?limit=5")
+		.header(HttpHeaders.IF_NONE_MATCH, etag)
+		.exchange()
+		.returnResult(byte[].class)
+		.getStatus();
+	}
+
+	private String etag(String uri, MediaType type) {
+		String etag = client.get().uri(uri)
+		.accept(type)
+		.exchange()
+		.expectStatus().isOk()
+		.returnResult(byte[].class)
+		.getResponseHeaders()
+		.getETag();
+		assertNotNull(etag);
+		return etag;
+	}
+}
@@ -0,0 +1,78 @@
+package com.base.app.etags;
+
+import com.base.app.Main;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.file.Files;
+
+class MultiInstanceETagTests {
+
+	private static final String PRODUCT = "{\"name\":\"Sony Notebook\",\"price\":846.89,\"category\":{\"id\":\"c1\",\"name\":\"computation\"}}";
+
+	private ConfigurableApplicationContext first;
+
+	private ConfigurableApplicationContext second;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		first = start();
+		second = start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		first.close();
+		second.close();
+	}
+
+	@Test
+	void listingsAreNotRevalidatedAcrossInstances() {
+		WebTestClient polled = client(first);
+		WebTestClient written = client(second);
+
+		polled.get().uri("/api/v2/products?limit=5")
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().doesNotExist(HttpHeaders.ETAG);
+		polled.get().uri("/api/products")
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().doesNotExist(HttpHeaders.ETAG);
+
+		written.get().uri("/api/v2/products?limit=5")
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().doesNotExist(HttpHeaders.ETAG);
+		written.post().uri("/api/v2/products")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue(PRODUCT)
+		.exchange()
+		.expectStatus().isCreated();
+
+		polled.get().uri("/api/v2/products?limit=5")
+		.header(HttpHeaders.IF_NONE_MATCH, "\"c0-json\"")
+		.exchange()
+		.expectStatus().isOk();
+	}
+
+	private static ConfigurableApplicationContext start() throws Exception {
+		return new SpringApplicationBuilder(Main.class)
+		.profiles("inmemory")
+		// the inmemory profile turns collection tags on, these instances run with the multi-instance default
+		.run("--server.port=0", "--config.etags.collection.enabled=false", "--config.seed.products=50",
+		"--config.uploads.path=" + Files.createTempDirectory("multi-instance-etags") + "/");
+	}
+
+	private static WebTestClient client(ConfigurableApplicationContext context) {
+		int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+		return WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+	}
+}
@@ -0,0 +1,63 @@
+package com.base.app.exports;
+
+import com.base.app.documents.Product;
+import com.base.app.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductExporterTests {
+
+	private final ProductExporter exporter = new ProductExporter();
+
+	@BeforeEach
+	void setUp() {
+		ProductService service = mock(ProductService.class);
+		when(service.export(eq("a1"), anyInt())).thenReturn(Flux.range(0, 500).map(i -> new Product("Product \"" + i + "\", new", i + 0.5)));
+		ReflectionTestUtils.setField(exporter, "service", service);
+		ReflectionTestUtils.setField(exporter, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(exporter, "cursorBatchSize", 100);
+		ReflectionTestUtils.setField(exporter, "limitRate", 64);
+		ReflectionTestUtils.setField(exporter, "chunkSize", 1024);
+	}
+
+	@Test
+	void streamsGzippedNdjson() throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		exporter.export("a1", ExportFormat.NDJSON, true)
+		.doOnNext(compressed::writeBytes)
+		.blockLast();
+
+		String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+		assertThat(ndjson.lines()).hasSize(500);
+		assertThat(ndjson.lines().findFirst()).hasValueSatisfying(line -> assertThat(line).contains("\"price\":0.5"));
+	}
+
+	@Test
+	void streamsEscapedCsvInBoundedChunks() {
+		List<byte[]> chunks = exporter.export("a1", ExportFormat.CSV, false).collectList().block();
+		String csv = chunks.stream()
+		.map(chunk -> new String(chunk, StandardCharsets.UTF_8))
+		.collect(Collectors.joining());
+
+		assertThat(chunks).hasSizeGreaterThan(1).allSatisfy(chunk -> assertThat(chunk.length).isLessThan(1200));
+		assertThat(csv.lines()).hasSize(501);
+		assertThat(csv.lines().skip(1).findFirst()).hasValue(",\"Product \"\"0\"\", new\",0.5,,,,");
+	}
+
+}
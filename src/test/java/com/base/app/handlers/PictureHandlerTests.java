@@ -0,0 +1,188 @@
+package com.base.app.handlers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+properties = {"config.seed.mode=none", "config.uploads.path=${java.io.tmpdir}/picture-handler-tests/"})
+@ActiveProfiles("inmemory")
+class PictureHandlerTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Test
+	void servesProductPicturesWithRevalidation() {
+		byte[] picture = picture(100_000);
+		Map<?, ?> product = create(picture);
+		String hash = product.get("picture").toString().substring(6, 70);
+
+		byte[] body = client.get().uri("/api/v2/products/{id}/picture", product.get("id"))
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().contentType(MediaType.IMAGE_PNG)
+		.expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + hash + "\"")
+		.expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "no-cache")
+		.expectHeader().valueEquals(HttpHeaders.ACCEPT_RANGES, "bytes")
+		.expectBody(byte[].class)
+		.returnResult()
+		.getResponseBody();
+		assertThat(body).isEqualTo(picture);
+
+		client.get().uri("/api/v2/products/{id}/picture", product.get("id"))
+		.header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\"")
+		.exchange()
+		.expectStatus().isNotModified()
+		.expectBody().isEmpty();
+	}
+
+	@Test
+	void servesContentAddressedPicturesAsImmutable() {
+		Map<?, ?> product = create(picture(2048));
+
+		client.get().uri("/api/v2/pictures/" + product.get("picture"))
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable");
+
+		client.get().uri("/api/v2/pictures/00/00/" + "0".repeat(64) + ".png")
+		.exchange()
+		.expectStatus().isNotFound();
+
+		client.get().uri("/api/v2/pictures/aa/bb/not-a-hash.png")
+		.exchange()
+		.expectStatus().isNotFound();
+	}
+
+	@Test
+	void answersMatchingTagsWithNotModified() {
+		Map<?, ?> product = create(picture(4096));
+		String uri = "/api/v2/pictures/" + product.get("picture");
+		String etag = "\"" + product.get("picture").toString().substring(6, 70) + "\"";
+
+		client.get().uri(uri)
+		.header(HttpHeaders.IF_NONE_MATCH, etag)
+		.exchange()
+		.expectStatus().isNotModified()
+		.expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+		.expectBody().isEmpty();
+
+		client.get().uri(uri)
+		.header(HttpHeaders.IF_NONE_MATCH, etag)
+		.header(HttpHeaders.RANGE, "bytes=100-199")
+		.exchange()
+		.expectStatus().isNotModified()
+		.expectHeader().doesNotExist(HttpHeaders.CONTENT_RANGE)
+		.expectBody().isEmpty();
+	}
+
+	@Test
+	void servesSingleByteRanges() {
+		byte[] picture = picture(4096);
+		Map<?, ?> product = create(picture);
+		String uri = "/api/v2/pictures/" + product.get("picture");
+		String etag = "\"" + product.get("picture").toString().substring(6, 70) + "\"";
+
+		byte[] body = client.get().uri(uri)
+		.header(HttpHeaders.RANGE, "bytes=100-199")
+		.exchange()
+		.expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+		.expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 100-199/4096")
+		.expectHeader().contentLength(100)
+		.expectBody(byte[].class)
+		.returnResult()
+		.getResponseBody();
+		assertThat(body).isEqualTo(Arrays.copyOfRange(picture, 100, 200));
+
+		client.get().uri(uri)
+		.header(HttpHeaders.RANGE, "bytes=-96")
+		.header(HttpHeaders.IF_RANGE, etag)
+		.exchange()
+		.expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+		.expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 4000-4095/4096");
+
+		client.get().uri(uri)
+		.header(HttpHeaders.RANGE, "bytes=0-9")
+		.header(HttpHeaders.IF_RANGE, "\"stale\"")
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().contentLength(4096);
+
+		client.get().uri(uri)
+		.header(HttpHeaders.RANGE, "bytes=5000-")
+		.exchange()
+		.expectStatus().isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+		.expectHeader().valueEquals(HttpHeaders.CONTENT_RANGE, "bytes */4096");
+	}
+
+	@Test
+	void generatesServableThumbnailsInTheBackground() throws Exception {
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB), "png", png);
+		Map<?, ?> product = create(png.toByteArray());
+
+		Map<?, ?> variants = null;
+		for (int attempt = 0; attempt < 100 && variants == null; attempt++) {
+			Thread.sleep(50);
+			variants = (Map<?, ?>) client.get().uri("/api/v2/products/{id}", product.get("id"))
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody(Map.class)
+			.returnResult()
+			.getResponseBody()
+			.get("variants");
+		}
+
+		assertThat(variants).isNotNull();
+		assertThat(variants.size()).isEqualTo(2);
+		assertThat(variants.get("480")).isNotNull();
+		byte[] thumbnail = client.get().uri("/api/v2/pictures/" + variants.get("160"))
+		.exchange()
+		.expectStatus().isOk()
+		.expectHeader().contentType(MediaType.IMAGE_JPEG)
+		.expectBody(byte[].class)
+		.returnResult()
+		.getResponseBody();
+		assertThat(ImageIO.read(new ByteArrayInputStream(thumbnail)).getWidth()).isEqualTo(160);
+	}
+
+	private Map<?, ?> create(byte[] picture) {
+		MultipartBodyBuilder builder = new MultipartBodyBuilder();
+		builder.part("name", "Sony Notebook");
+		builder.part("price", "846.89");
+		builder.part("category.id", "c1");
+		builder.part("category.name", "computation");
+		builder.part("file", new ByteArrayResource(picture)).filename("picture.png");
+		return client.post().uri("/api/v2/products/create")
+		.bodyValue(builder.build())
+		.exchange()
+		.expectStatus().isCreated()
+		.expectBody(Map.class)
+		.returnResult()
+		.getResponseBody();
+	}
+
+	private static byte[] picture(int size) {
+		byte[] picture = new byte[size];
+		new Random(size).nextBytes(picture);
+		return picture;
+	}
+}
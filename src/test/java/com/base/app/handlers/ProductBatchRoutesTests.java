@@ -0,0 +1,104 @@
+package com.base.app.handlers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+@SpringBootTest(properties = {"config.seed.mode=none", "config.batch.max-size=3"})
+@AutoConfigureWebTestClient
+@ActiveProfiles("inmemory")
+class ProductBatchRoutesTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Test
+	void returnsProductsInRequestOrderAndListsMissingIds() {
+		String first = create("Sony Notebook");
+		String second = create("Apple iPod");
+
+		client.get().uri("/api/v2/products/batch?ids={ids}", second + ",missing," + first)
+		.exchange()
+		.expectStatus().isOk()
+		.expectBody()
+		.jsonPath("$.products.length()").isEqualTo(2)
+		.jsonPath("$.products[0].id").isEqualTo(second)
+		.jsonPath("$.products[1].id").isEqualTo(first)
+		.jsonPath("$.missing.length()").isEqualTo(1)
+		.jsonPath("$.missing[0]").isEqualTo("missing");
+	}
+
+	@Test
+	void acceptsRepeatedParametersAndDeduplicates() {
+		String id = create("Bianchi Bicicleta");
+
+		client.get().uri("/api/v2/products/batch?ids={first}&ids={again}", id, " " + id + " ,")
+		.exchange()
+		.expectStatus().isOk()
+		.expectBody()
+		.jsonPath("$.products.length()").isEqualTo(1)
+		.jsonPath("$.products[0].name").isEqualTo("Bianchi Bicicleta")
+		.jsonPath("$.missing.length()").isEqualTo(0);
+	}
+
+	@Test
+	void acceptsIdsInAPostBody() {
+		String first = create("TV Panasonic");
+		String second = create("Mica Cómoda");
+
+		client.post().uri("/api/v2/products/batch")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue(List.of(second, first, second))
+		.exchange()
+		.expectStatus().isOk()
+		.expectBody()
+		.jsonPath("$.products.length()").isEqualTo(2)
+		.jsonPath("$.products[0].id").isEqualTo(second)
+		.jsonPath("$.products[1].id").isEqualTo(first);
+	}
+
+	@Test
+	void rejectsEmptyAndOversizedBatches() {
+		client.get().uri("/api/v2/products/batch")
+		.exchange()
+		.expectStatus().isBadRequest()
+		.expectBody()
+		.jsonPath("$.status").isEqualTo(400)
+		.jsonPath("$.errors").isNotEmpty();
+
+		client.post().uri("/api/v2/products/batch")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue(List.of())
+		.exchange()
+		.expectStatus().isBadRequest();
+
+		client.get().uri("/api/v2/products/batch?ids=a,b,c,d")
+		.exchange()
+		.expectStatus().isBadRequest()
+		.expectBody()
+		.jsonPath("$.status").isEqualTo(400);
+
+		client.get().uri("/api/v2/products/batch?ids=a,b,c,a")
+		.exchange()
+		.expectStatus().isOk();
+	}
+
+	private String create(String name) {
+		return client.post().uri("/api/v2/products")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"name\":\"" + name + "\",\"price\":10.5,\"category\":{\"id\":\"c1\",\"name\":\"electronics\"}}")
+		.exchange()
+		.expectStatus().isCreated()
+		.returnResult(Void.class)
+		.getResponseHeaders()
+		.getLocation()
+		.getPath()
+		.replaceAll(".*/", "");
+	}
+}
@@ -0,0 +1,165 @@
+package com.base.app.handlers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"config.seed.mode=none", "config.uploads.path=${java.io.tmpdir}/product-write-routes-tests/"})
+@AutoConfigureWebTestClient
+@ActiveProfiles("inmemory")
+class ProductWriteRoutesTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void overlongImportLinesEndTheImportWithAPartialReport() {
+		byte[] valid = "{\"name\":\"A\",\"price\":10}\n{\"name\":\"B\",\"price\":11}\n".getBytes(StandardCharsets.UTF_8);
+		byte[] line = ("{\"name\":\"" + "x".repeat(300 * 1024) + "\",\"price\":10}\n").getBytes(StandardCharsets.UTF_8);
+		// like a request read off the network, the line arrives split across several buffers
+		Flux<DataBuffer> body = Flux.concat(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(valid)),
+		Flux.range(0, (line.length + 65535) / 65536)
+		.map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(line, chunk * 65536, Math.min(line.length, (chunk + 1) * 65536)))));
+
+		client.post().uri("/api/v2/products/import")
+		.contentType(MediaType.APPLICATION_NDJSON)
+		.body(BodyInserters.fromDataBuffers(body))
+		.exchange()
+		.expectStatus().isEqualTo(413)
+		.expectBody()
+		.jsonPath("$.complete").isEqualTo(false)
+		.jsonPath("$.inserted").isEqualTo(2)
+		.jsonPath("$.terminalError.line").isEqualTo(3)
+		.jsonPath("$.terminalError.messages[0]").isEqualTo("Import lines must not be longer than 262144 bytes");
+	}
+
+	@Test
+	void partialUpdatesKeepUnspecifiedFields() {
+		String id = create("Sony Notebook", 846.89);
+
+		client.put().uri("/api/v2/products/{id}", id)
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"price\":799.0}")
+		.exchange()
+		.expectStatus().isCreated()
+		.expectBody()
+		.jsonPath("$.name").isEqualTo("Sony Notebook")
+		.jsonPath("$.price").isEqualTo(799.0)
+		.jsonPath("$.category.name").isEqualTo("computation")
+		.jsonPath("$.version").isEqualTo(1);
+	}
+
+	@Test
+	void staleVersionsAreRejectedWith409() {
+		String id = create("Apple iPod", 46.89);
+
+		client.put().uri("/api/v2/products/{id}", id)
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"name\":\"Apple iPod Nano\",\"version\":0}")
+		.exchange()
+		.expectStatus().isCreated();
+
+		client.put().uri("/api/v2/products/{id}", id)
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"name\":\"Apple iPod Touch\",\"version\":0}")
+		.exchange()
+		.expectStatus().isEqualTo(409);
+
+		client.get().uri("/api/v2/products/{id}", id)
+		.exchange()
+		.expectBody()
+		.jsonPath("$.name").isEqualTo("Apple iPod Nano");
+	}
+
+	@Test
+	void updatesOfMissingProductsReturn404() {
+		client.put().uri("/api/v2/products/{id}", "missing")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"name\":\"Ghost\"}")
+		.exchange()
+		.expectStatus().isNotFound();
+
+		client.put().uri("/api/v2/products/{id}", "missing")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"name\":\"Ghost\",\"version\":3}")
+		.exchange()
+		.expectStatus().isNotFound();
+	}
+
+	@Test
+	void deletesReturn204ThenNotFound() {
+		String id = create("Bianchi Bicicleta", 70.89);
+
+		client.delete().uri("/api/v2/products/{id}", id)
+		.exchange()
+		.expectStatus().isNoContent();
+
+		client.delete().uri("/api/v2/products/{id}", id)
+		.exchange()
+		.expectStatus().isNotFound();
+
+		client.get().uri("/api/v2/products/{id}", id)
+		.exchange()
+		.expectStatus().isNotFound();
+	}
+
+	@Test
+	void uploadsForMissingProductsReleaseTheStoredPicture() {
+		MultipartBodyBuilder builder = new MultipartBodyBuilder();
+		builder.part("file", new ByteArrayResource("orphaned picture".getBytes())).filename("picture.png");
+		double candidates = meterRegistry.get("pictures.gc.candidates").gauge().value();
+
+		client.post().uri("/api/v2/products/upload/{id}", "missing")
+		.bodyValue(builder.build())
+		.exchange()
+		.expectStatus().isNotFound();
+
+		assertThat(meterRegistry.get("pictures.gc.candidates").gauge().value()).isEqualTo(candidates + 1);
+	}
+
+	@Test
+	void uploadsWithoutAFilePartAreRejectedWith400() {
+		String id = create("Sony Camara", 177.89);
+		MultipartBodyBuilder builder = new MultipartBodyBuilder();
+		builder.part("name", "no picture here");
+
+		client.post().uri("/api/v2/products/upload/{id}", id)
+		.bodyValue(builder.build())
+		.exchange()
+		.expectStatus().isBadRequest()
+		.expectBody()
+		.jsonPath("$.status").isEqualTo(400);
+	}
+
+	private String create(String name, double price) {
+		return client.post().uri("/api/v2/products")
+		.contentType(MediaType.APPLICATION_JSON)
+		.bodyValue("{\"name\":\"" + name + "\",\"price\":" + price + ",\"category\":{\"id\":\"c1\",\"name\":\"computation\"}}")
+		.exchange()
+		.expectStatus().isCreated()
+		.returnResult(Void.class)
+		.getResponseHeaders()
+		.getLocation()
+		.getPath()
+		.replaceAll(".*/", "");
+	}
+}
@@ -0,0 +1,111 @@
+package com.base.app.imports;
+
+import com.base.app.documents.Product;
+import com.base.app.repositories.BulkInsertResult;
+import com.base.app.services.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductImporterTests {
+
+	private final ProductImporter importer = new ProductImporter();
+
+	private final List<List<Product>> batches = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		ProductService service = mock(ProductService.class);
+		when(service.insertAll(anyList())).thenAnswer(invocation -> {
+			List<Product> batch = invocation.getArgument(0);
+			batches.add(batch);
+			return Mono.just(new BulkInsertResult(batch.size(), Map.of()));
+		});
+		ReflectionTestUtils.setField(importer, "service", service);
+		ReflectionTestUtils.setField(importer, "validator", new SpringValidatorAdapter(Validation.buildDefaultValidatorFactory().getValidator()));
+		ReflectionTestUtils.setField(importer, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(importer, "batchSize", 2);
+		ReflectionTestUtils.setField(importer, "validationParallelism", 4);
+		ReflectionTestUtils.setField(importer, "writeConcurrency", 1);
+		ReflectionTestUtils.setField(importer, "maxReportedErrors", 10);
+	}
+
+	@Test
+	void importsCsvSplitAcrossBuffersAndReportsInvalidRows() {
+		Flux<DataBuffer> body = chunks("name,price,category.id,category.name\n\"Sony, Notebook\",846.",
+		"89,,\nApple iPod,0.5,,\nBianchi Bicicleta,70.89,,\nTV,abc,,\n");
+
+		StepVerifier.create(importer.importProducts(body, ImportFormat.CSV))
+		.assertNext(report -> {
+			assertThat(report.getReceived()).isEqualTo(4);
+			assertThat(report.getInserted()).isEqualTo(2);
+			assertThat(report.getRejected()).isEqualTo(2);
+			assertThat(report.getErrors()).extracting(ImportReport.RowError::line).containsExactly(3L, 5L);
+		})
+		.verifyComplete();
+
+		assertThat(batches).hasSize(1);
+		assertThat(batches.get(0)).extracting(Product::getName).containsExactly("Sony, Notebook", "Bianchi Bicicleta");
+	}
+
+	@Test
+	void importsNdjsonInBoundedBatches() {
+		Flux<DataBuffer> body = chunks("{\"name\":\"A\",\"price\":10}\n{\"name\":\"B\",\"price\":11}\n",
+		"{\"name\":\"C\",\"price\":12}\nnot json\n");
+
+		StepVerifier.create(importer.importProducts(body, ImportFormat.NDJSON))
+		.assertNext(report -> {
+			assertThat(report.getInserted()).isEqualTo(3);
+			assertThat(report.getRejected()).isEqualTo(1);
+		})
+		.verifyComplete();
+
+		assertThat(batches).extracting(List::size).containsExactly(2, 1);
+	}
+
+	@Test
+	void rejectsCsvWithoutRequiredColumns() {
+		StepVerifier.create(importer.importProducts(chunks("name,cost\nTV,10\n"), ImportFormat.CSV))
+		.verifyError(IllegalArgumentException.class);
+	}
+
+	@Test
+	void stopsAtAnOverlongLineWithTheRowsBeforeIt() {
+		Flux<DataBuffer> body = chunks("{\"name\":\"A\",\"price\":10}\n\n{\"name\":\"B\",\"price\":11}\n{\"name\":\"C\",\"price\":12}\n",
+		"x".repeat(200 * 1024), "x".repeat(200 * 1024), "\n{\"name\":\"D\",\"price\":13}\n");
+
+		StepVerifier.create(importer.importProducts(body, ImportFormat.NDJSON))
+		.assertNext(report -> {
+			assertThat(report.isComplete()).isFalse();
+			assertThat(report.getInserted()).isEqualTo(3);
+			assertThat(report.getTerminalError().line()).isEqualTo(5);
+		})
+		.verifyComplete();
+
+		assertThat(batches).flatExtracting(batch -> batch).extracting(Product::getName).containsExactly("A", "B", "C");
+	}
+
+	private static Flux<DataBuffer> chunks(String... chunks) {
+		return Flux.fromArray(chunks)
+		.map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
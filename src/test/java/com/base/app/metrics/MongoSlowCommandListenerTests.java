@@ -0,0 +1,41 @@
+package com.base.app.metrics;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoSlowCommandListenerTests {
+
+	@Test
+	void shapeKeepsFieldsAndOperatorsButHidesValues() {
+		BsonDocument filter = BsonDocument.parse("{'category._id': {$oid: '65b0c1f2a1b2c3d4e5f60718'}, price: {$gte: 10.0, $lte: 99.5}, $or: [{name: {$regex: '^Sony'}}, {name: 'Apple'}]}");
+
+		assertThat(MongoSlowCommandListener.shape(filter).asDocument().toJson())
+		.isEqualTo("{\"category._id\": \"?\", \"price\": {\"$gte\": \"?\", \"$lte\": \"?\"}, \"$or\": [{\"name\": {\"$regex\": \"?\"}}, {\"name\": \"?\"}]}");
+	}
+
+	@Test
+	void shapeCollapsesScalarArrays() {
+		BsonDocument filter = BsonDocument.parse("{_id: {$in: ['a', 'b', 'c']}}");
+
+		assertThat(MongoSlowCommandListener.shape(filter).asDocument().toJson()).isEqualTo("{\"_id\": {\"$in\": \"?\"}}");
+	}
+
+	@Test
+	void countsReturnedDocumentsFromCursorsAndWriteResults() {
+		assertThat(MongoSlowCommandListener.returned(BsonDocument.parse("{cursor: {id: 0, firstBatch: [{}, {}, {}]}, ok: 1}"))).isEqualTo(3);
+		assertThat(MongoSlowCommandListener.returned(BsonDocument.parse("{cursor: {id: 0, nextBatch: [{}]}, ok: 1}"))).isEqualTo(1);
+		assertThat(MongoSlowCommandListener.returned(BsonDocument.parse("{n: 7, ok: 1}"))).isEqualTo(7);
+		assertThat(MongoSlowCommandListener.returned(BsonDocument.parse("{value: null, ok: 1}"))).isZero();
+	}
+
+	@Test
+	void describesInsertsByDocumentCountOnly() {
+		BsonDocument unordered = BsonDocument.parse("{insert: 'products', ordered: false, documents: [{name: 'Sony Notebook'}, {name: 'Apple iPod'}, {name: 'TV'}]}");
+		BsonDocument single = BsonDocument.parse("{insert: 'products', documents: [{name: 'Sony Notebook'}]}");
+
+		assertThat(MongoSlowCommandListener.inserted(unordered)).isEqualTo("documents 3, unordered");
+		assertThat(MongoSlowCommandListener.inserted(single)).isEqualTo("documents 1, ordered");
+	}
+}
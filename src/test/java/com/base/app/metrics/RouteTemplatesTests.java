@@ -0,0 +1,56 @@
+package com.base.app.metrics;
+
+import com.base.app.RouterFunctionConfig;
+import com.base.app.handlers.ProductHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteTemplatesTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final RouteTemplates templates = RouteTemplates.builder(registry)
+	.routerFunction(new RouterFunctionConfig().routes(new ProductHandler()))
+	.build();
+
+	@Test
+	void matchesRouteTemplateInsteadOfRawPath() {
+		assertThat(uri(HttpMethod.GET, "/api/v2/products/65b0c1f2a1b2c3d4e5f60718")).isEqualTo("/api/v2/products/{id}");
+		assertThat(uri(HttpMethod.DELETE, "/api/v2/products/65b0c1f2a1b2c3d4e5f60718")).isEqualTo("/api/v2/products/{id}");
+		assertThat(uri(HttpMethod.GET, "/api/v3/products")).isEqualTo("/api/v3/products");
+	}
+
+	@Test
+	void prefersLiteralSegmentsOverVariables() {
+		assertThat(uri(HttpMethod.GET, "/api/v2/products/batch")).isEqualTo("/api/v2/products/batch");
+		assertThat(uri(HttpMethod.POST, "/api/v2/products/batch")).isEqualTo("/api/v2/products/batch");
+		assertThat(uri(HttpMethod.GET, "/api/v2/products/export")).isEqualTo("/api/v2/products/export");
+	}
+
+	@Test
+	void unmatchedRequestsShareOneBucket() {
+		assertThat(uri(HttpMethod.GET, "/actuator/prometheus")).isEqualTo(RouteMeters.UNKNOWN);
+		assertThat(uri(HttpMethod.PATCH, "/api/v2/products/1")).isEqualTo(RouteMeters.UNKNOWN);
+	}
+
+	@Test
+	void tracksInFlightAndResponseSizePerRoute() {
+		RouteMeters route = templates.match(HttpMethod.GET, PathContainer.parsePath("/api/v2/products/1"));
+
+		route.begin();
+		assertThat(registry.get("http.server.route.inflight").tags("method", "GET", "uri", "/api/v2/products/{id}").gauge().value()).isEqualTo(1);
+
+		route.end(512);
+		assertThat(route.getInFlight()).isZero();
+		assertThat(registry.get("http.server.route.response.size").tags("method", "GET", "uri", "/api/v2/products/{id}").summary().totalAmount()).isEqualTo(512);
+	}
+
+	private String uri(HttpMethod method, String path) {
+		RouteMeters route = templates.match(method, PathContainer.parsePath(path));
+		return route.getPattern() != null ? route.getPattern().getPatternString() : RouteMeters.UNKNOWN;
+	}
+}
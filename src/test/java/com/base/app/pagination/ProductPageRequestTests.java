@@ -0,0 +1,57 @@
+package com.base.app.pagination;
+
+import com.base.app.documents.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class ProductPageRequestTests {
+
+	@Test
+	void cursorRoundTripsSortAndLastKey() {
+		Product product = new Product("Sony: Notebook", 846.89);
+		ReflectionTestUtils.setField(product, "id", "65b8f0c2a1b2c3d4e5f60718");
+
+		String token = ProductCursor.after(product, ProductSortKey.NAME, Sort.Direction.DESC).encode();
+		ProductPageRequest request = ProductPageRequest.of(null, token, 20);
+
+		assertThat(request.getSortKey()).isEqualTo(ProductSortKey.NAME);
+		assertThat(request.getDirection()).isEqualTo(Sort.Direction.DESC);
+		assertThat(request.getCursor().getLastId()).isEqualTo("65b8f0c2a1b2c3d4e5f60718");
+		assertThat(request.getCursor().getLastValue()).isEqualTo("Sony: Notebook");
+		assertThat(request.toSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "name", "id"));
+	}
+
+	@Test
+	void cursorRoundTripsNullKeys() {
+		Product product = new Product(null, null);
+		ReflectionTestUtils.setField(product, "id", "65b8f0c2a1b2c3d4e5f60718");
+
+		for (ProductSortKey sortKey : List.of(ProductSortKey.PRICE, ProductSortKey.NAME)) {
+			String token = ProductCursor.after(product, sortKey, Sort.Direction.ASC).encode();
+			ProductCursor cursor = ProductPageRequest.of(null, token, 20).getCursor();
+
+			assertThat(cursor.getSortKey()).isEqualTo(sortKey);
+			assertThat(cursor.getLastId()).isEqualTo("65b8f0c2a1b2c3d4e5f60718");
+			assertThat(cursor.getLastValue()).isNull();
+			assertThat(cursor.getLastPrice()).isNull();
+		}
+	}
+
+	@Test
+	void rejectsInvalidInput() {
+		assertThatIllegalArgumentException().isThrownBy(() -> ProductPageRequest.of(null, null, 0));
+		assertThatIllegalArgumentException().isThrownBy(() -> ProductPageRequest.of("stock", null, 10));
+		assertThatIllegalArgumentException().isThrownBy(() -> ProductPageRequest.of(null, "not-a-cursor", 10));
+
+		Product product = new Product("TV", 10.0);
+		String token = ProductCursor.after(product, ProductSortKey.PRICE, Sort.Direction.ASC).encode();
+		assertThatIllegalArgumentException().isThrownBy(() -> ProductPageRequest.of("name", token, 10));
+	}
+
+}
@@ -0,0 +1,173 @@
+package com.base.app.repositories.memory;
+
+import com.base.app.documents.Category;
+import com.base.app.documents.Product;
+import com.base.app.pagination.ProductCursor;
+import com.base.app.pagination.ProductFilter;
+import com.base.app.pagination.ProductPageRequest;
+import com.base.app.repositories.BulkInsertResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryProductRepositoryTests {
+
+	private final InMemoryProductRepository repository = new InMemoryProductRepository();
+
+	private final List<Product> products = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		Random random = new Random(42);
+		String[] prefixes = {"Sony", "Apple", "HP", "Bianchi", "TV"};
+		for (int i = 0; i < 300; i++) {
+			Category category = new Category("category " + (i % 4));
+			category.setId("c" + (i % 4));
+			Product product = new Product(prefixes[random.nextInt(prefixes.length)] + " " + random.nextInt(50), (double) random.nextInt(40), category);
+			products.add(repository.save(product).block());
+		}
+	}
+
+	@Test
+	void keysetPagesMatchFilteredAndSortedScan() {
+		List<ProductFilter> filters = List.of(
+		ProductFilter.none(),
+		new ProductFilter(10.0, 20.0, null, null),
+		new ProductFilter(null, null, "c2", null),
+		new ProductFilter(null, 30.0, "c1", "Sony"),
+		new ProductFilter(null, null, null, "Apple")
+		);
+		for (ProductFilter filter : filters) {
+			for (String sort : List.of("id", "id,desc", "price", "price,desc", "name", "name,desc")) {
+				assertThat(pageThrough(filter, sort, 7)).as(filter + " " + sort).containsExactlyElementsOf(expected(filter, sort));
+			}
+		}
+	}
+
+	@Test
+	void derivedKeysetQueriesUseIndexOrder() {
+		Product pivot = products.get(10);
+		List<String> ids = repository.findByPriceGreaterThanOrPriceAndIdGreaterThan(pivot.getPrice(), pivot.getPrice(), pivot.getId(), Sort.unsorted(), Limit.of(5))
+		.map(Product::getId)
+		.collectList()
+		.block();
+
+		List<String> expected = products.stream()
+		.filter(p -> p.getPrice() > pivot.getPrice() || (p.getPrice().equals(pivot.getPrice()) && p.getId().compareTo(pivot.getId()) > 0))
+		.sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId))
+		.limit(5)
+		.map(Product::getId)
+		.toList();
+		assertThat(ids).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void updatesMoveIndexEntriesAndBumpVersion() {
+		Product product = products.get(0);
+		Product changes = new Product();
+		changes.setPrice(1000.0);
+		changes.setVersion(product.getVersion());
+
+		StepVerifier.create(repository.updateFields(product.getId(), changes))
+		.assertNext(updated -> assertThat(updated.getVersion()).isEqualTo(product.getVersion() + 1))
+		.verifyComplete();
+
+		StepVerifier.create(repository.findAllBy(Sort.by(Sort.Direction.DESC, "price"), Limit.of(1)))
+		.assertNext(top -> assertThat(top.getId()).isEqualTo(product.getId()))
+		.verifyComplete();
+		StepVerifier.create(repository.updateFields(product.getId(), changes)).verifyComplete();
+	}
+
+	@Test
+	void pictureUpdatesReturnThePreviousDocument() {
+		Product product = products.get(1);
+		Product first = new Product();
+		first.setPicture("first.png");
+		repository.updateFields(product.getId(), first).block();
+		Product second = new Product();
+		second.setPicture("second.png");
+
+		StepVerifier.create(repository.updateFieldsReturningPrevious(product.getId(), second))
+		.assertNext(previous -> assertThat(previous.getPicture()).isEqualTo("first.png"))
+		.verifyComplete();
+
+		StepVerifier.create(repository.findById(product.getId()))
+		.assertNext(current -> assertThat(current.getPicture()).isEqualTo("second.png"))
+		.verifyComplete();
+	}
+
+	@Test
+	void staleVersionSaveIsRejected() {
+		Product stale = repository.findById(products.get(0).getId()).block();
+		repository.save(repository.findById(stale.getId()).block()).block();
+
+		StepVerifier.create(repository.save(stale)).verifyError(OptimisticLockingFailureException.class);
+	}
+
+	@Test
+	void unorderedInsertReportsDuplicatesByIndex() {
+		Product duplicate = new Product("Duplicate", 1.0);
+		duplicate.setId(products.get(0).getId());
+
+		BulkInsertResult result = repository.insertUnordered(List.of(new Product("New", 2.0), duplicate, new Product("Other", 3.0))).block();
+
+		assertThat(result.inserted()).isEqualTo(2);
+		assertThat(result.failures()).containsOnlyKeys(1);
+		assertThat(repository.count().block()).isEqualTo(302);
+	}
+
+	@Test
+	void removeDropsIndexEntries() {
+		Product product = products.get(0);
+
+		StepVerifier.create(repository.removeById(product.getId()).map(Product::getId)).expectNext(product.getId()).verifyComplete();
+		StepVerifier.create(repository.removeById(product.getId())).verifyComplete();
+
+		assertThat(repository.findAllBy(Sort.by("price"), Limit.unlimited()).map(Product::getId).collectList().block())
+		.hasSize(299)
+		.doesNotContain(product.getId());
+	}
+
+	private List<String> pageThrough(ProductFilter filter, String sort, int limit) {
+		List<String> ids = new ArrayList<>();
+		ProductPageRequest request = ProductPageRequest.of(filter, sort, null, limit);
+		while (true) {
+			List<Product> page = repository.search(request, limit).collectList().block();
+			page.forEach(p -> ids.add(p.getId()));
+			if (page.size() < limit) {
+				return ids;
+			}
+			ProductCursor cursor = ProductCursor.after(page.get(page.size() - 1), request.getSortKey(), request.getDirection());
+			request = ProductPageRequest.of(filter, sort, cursor.encode(), limit);
+		}
+	}
+
+	private List<String> expected(ProductFilter filter, String sort) {
+		ProductPageRequest request = ProductPageRequest.sortedBy(filter, sort);
+		Comparator<Product> comparator = switch (request.getSortKey()) {
+			case ID -> Comparator.comparing(Product::getId);
+			case PRICE -> Comparator.comparing(Product::getPrice).thenComparing(Product::getId);
+			case NAME -> Comparator.comparing(Product::getName).thenComparing(Product::getId);
+		};
+		Stream<Product> matching = products.stream()
+		.filter(p -> filter.getMinPrice() == null || p.getPrice() >= filter.getMinPrice())
+		.filter(p -> filter.getMaxPrice() == null || p.getPrice() <= filter.getMaxPrice())
+		.filter(p -> filter.getCategoryId() == null || filter.getCategoryId().equals(p.getCategory().getId()))
+		.filter(p -> filter.getNamePrefix() == null || p.getName().startsWith(filter.getNamePrefix()));
+		return matching
+		.sorted(request.getDirection().isAscending() ? comparator : comparator.reversed())
+		.map(Product::getId)
+		.toList();
+	}
+}
@@ -0,0 +1,42 @@
+package com.base.app.seed;
+
+import com.base.app.repositories.CategoryRepository;
+import com.base.app.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+"config.seed.mode=synthetic",
+"config.seed.products=5000",
+"config.seed.categories=5",
+"config.seed.batch-size=300"
+})
+@ActiveProfiles("inmemory")
+class DataSeederTests {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private DataSeeder seeder;
+
+	@Test
+	void seedsSyntheticDataBeforeStartupCompletes() {
+		assertThat(productRepository.count().block()).isEqualTo(5000);
+		assertThat(categoryRepository.count().block()).isEqualTo(5);
+	}
+
+	@Test
+	void doesNotReseedWhenProductsExist() {
+		seeder.seed().block();
+
+		assertThat(productRepository.count().block()).isEqualTo(5000);
+	}
+}
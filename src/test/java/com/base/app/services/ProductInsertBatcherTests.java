@@ -0,0 +1,110 @@
+package com.base.app.services;
+
+import com.base.app.documents.Product;
+import com.base.app.repositories.BulkInsertResult;
+import com.base.app.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductInsertBatcherTests {
+
+	private final ProductInsertBatcher batcher = new ProductInsertBatcher();
+
+	private final ProductRepository repository = mock(ProductRepository.class);
+
+	private final List<Integer> batchSizes = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		when(repository.insertUnordered(anyList())).thenAnswer(invocation -> {
+			List<Product> batch = invocation.getArgument(0);
+			batchSizes.add(batch.size());
+			return Mono.just(new BulkInsertResult(batch.size() - 1, Map.of(batch.size() - 1, "E11000 duplicate key")));
+		});
+		ReflectionTestUtils.setField(batcher, "productRepository", repository);
+		ReflectionTestUtils.setField(batcher, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(batcher, "enabled", true);
+		ReflectionTestUtils.setField(batcher, "window", Duration.ofMillis(50));
+		ReflectionTestUtils.setField(batcher, "maxBatchSize", 3);
+		ReflectionTestUtils.setField(batcher, "maxPending", 100);
+		ReflectionTestUtils.setField(batcher, "shutdownTimeout", Duration.ofSeconds(1));
+		batcher.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		batcher.stop();
+	}
+
+	@Test
+	void groupsConcurrentInsertsAndRoutesResultsToEachCaller() {
+		Mono<Product> first = batcher.insert(new Product("A", 1.0));
+		Mono<Product> second = batcher.insert(new Product("B", 2.0));
+		Mono<Product> third = batcher.insert(new Product("C", 3.0));
+
+		StepVerifier.create(Mono.zipDelayError(first, second, third.onErrorReturn(DataIntegrityViolationException.class, new Product("failed", 0.0))))
+		.assertNext(results -> {
+			assertThat(results.getT1().getName()).isEqualTo("A");
+			assertThat(results.getT2().getName()).isEqualTo("B");
+			assertThat(results.getT3().getName()).isEqualTo("failed");
+		})
+		.verifyComplete();
+		assertThat(batchSizes).containsExactly(3);
+	}
+
+	@Test
+	void flushesPartialBatchWhenWindowElapses() {
+		StepVerifier.create(batcher.insert(new Product("A", 1.0)))
+		.expectErrorMatches(e -> e instanceof DataIntegrityViolationException)
+		.verify(Duration.ofSeconds(5));
+		assertThat(batchSizes).containsExactly(1);
+	}
+
+	@Test
+	void rejectsInsertsOnceTheQueueIsFull() {
+		when(repository.insertUnordered(anyList())).thenReturn(Mono.never());
+		List<Throwable> errors = new ArrayList<>();
+
+		for (int i = 0; i < 1000; i++) {
+			batcher.insert(new Product("P" + i, 1.0)).subscribe(product -> {
+			}, errors::add);
+		}
+
+		assertThat(errors).isNotEmpty().allMatch(InsertQueueFullException.class::isInstance);
+	}
+
+	@Test
+	void stopWaitsForTheLastBatchToBeWritten() {
+		List<String> written = new CopyOnWriteArrayList<>();
+		when(repository.insertUnordered(anyList())).thenAnswer(invocation -> {
+			List<Product> batch = invocation.getArgument(0);
+			return Mono.delay(Duration.ofMillis(200)).map(tick -> {
+				batch.forEach(product -> written.add(product.getName()));
+				return new BulkInsertResult(batch.size(), Map.of());
+			});
+		});
+		batcher.insert(new Product("A", 1.0)).subscribe();
+
+		batcher.stop();
+
+		assertThat(written).containsExactly("A");
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.base.app.storage;
+
+import com.base.app.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PictureCollectorTests {
+
+	private final PictureStore store = new PictureStore();
+
+	private final PictureCollector collector = new PictureCollector();
+
+	private final ProductRepository repository = mock(ProductRepository.class);
+
+	@TempDir
+	Path root;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(store, "path", root.toString());
+		store.init();
+		ReflectionTestUtils.setField(collector, "store", store);
+		ReflectionTestUtils.setField(collector, "productRepository", repository);
+		ReflectionTestUtils.setField(collector, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(collector, "enabled", false);
+		ReflectionTestUtils.setField(collector, "gracePeriod", Duration.ofHours(1));
+		ReflectionTestUtils.setField(collector, "concurrency", 2);
+		ReflectionTestUtils.setField(collector, "maxCandidates", 10);
+		collector.start();
+		when(repository.countByPicture(anyString())).thenReturn(Mono.just(0L));
+	}
+
+	@Test
+	void deletesReleasedPicturesOnceNothingReferencesThem() throws Exception {
+		StoredPicture unused = stored("unused");
+		StoredPicture shared = stored("shared");
+		when(repository.countByPicture(shared.picture())).thenReturn(Mono.just(2L));
+		age(unused.file());
+		age(shared.file());
+
+		collector.release(unused.picture());
+		collector.release(shared.picture());
+		ReflectionTestUtils.setField(collector, "gracePeriod", Duration.ZERO);
+
+		assertThat(collector.collectCandidates().block()).isEqualTo(1);
+		assertThat(unused.file()).doesNotExist();
+		assertThat(shared.file()).exists();
+	}
+
+	@Test
+	void sweepSparesRecentlyWrittenBlobsAndClearsAbandonedUploads() throws Exception {
+		StoredPicture old = stored("old");
+		StoredPicture fresh = stored("fresh");
+		age(old.file());
+		Path abandoned = Files.writeString(root.resolve(PictureStore.INCOMING).resolve("abandoned"), "partial");
+		age(abandoned);
+		Files.writeString(root.resolve("legacy-picture.png"), "legacy");
+
+		assertThat(collector.sweep().block()).isEqualTo(1);
+		assertThat(old.file()).doesNotExist();
+		assertThat(fresh.file()).exists();
+		assertThat(abandoned).doesNotExist();
+		assertThat(root.resolve("legacy-picture.png")).exists();
+	}
+
+	@Test
+	void ignoresPicturesOutsideTheBlobLayout() {
+		collector.release("legacy-picture.png");
+		collector.release(null);
+
+		assertThat(collector.collectCandidates().block()).isZero();
+	}
+
+	private StoredPicture stored(String content) {
+		return store.store("picture.png", Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(content.getBytes(StandardCharsets.UTF_8)))).block();
+	}
+
+	private static void age(Path file) throws Exception {
+		Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+	}
+}
@@ -0,0 +1,80 @@
+package com.base.app.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class PictureStoreTests {
+
+	private final PictureStore store = new PictureStore();
+
+	@TempDir
+	Path root;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(store, "path", root.toString());
+		store.init();
+	}
+
+	@Test
+	void storesContentUnderItsShardedHash() {
+		StoredPicture stored = store.store("My Pic.PNG", content("hello ", "world")).block();
+
+		String sha256 = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+		assertThat(stored.picture()).isEqualTo("b9/4d/" + sha256 + ".png");
+		assertThat(stored.file()).isEqualTo(root.resolve(stored.picture())).hasContent("hello world");
+		assertThat(stored.size()).isEqualTo(11);
+		assertThat(stored.deduplicated()).isFalse();
+		assertThat(store.isBlob(stored.picture())).isTrue();
+	}
+
+	@Test
+	void keepsASingleCopyOfIdenticalContent() throws Exception {
+		StoredPicture first = store.store("a.png", content("same bytes")).block();
+		StoredPicture second = store.store("b.png", content("same ", "bytes")).block();
+
+		assertThat(second.picture()).isEqualTo(first.picture());
+		assertThat(second.deduplicated()).isTrue();
+		assertThat(store.blobs().collectList().block()).containsExactly(first.picture());
+		try (var incoming = Files.list(root.resolve(PictureStore.INCOMING))) {
+			assertThat(incoming).isEmpty();
+		}
+	}
+
+	@Test
+	void restoresContentWhoseBlobWasCollected() {
+		StoredPicture first = store.store("a.png", content("same bytes")).block();
+		assertThat(store.delete(first.file())).isTrue();
+
+		StoredPicture second = store.store("b.png", content("same bytes")).block();
+
+		assertThat(second.picture()).isEqualTo(first.picture());
+		assertThat(second.deduplicated()).isFalse();
+		assertThat(second.file()).hasContent("same bytes");
+	}
+
+	@Test
+	void rejectsReferencesOutsideTheStore() {
+		assertThatIllegalArgumentException().isThrownBy(() -> store.resolve("../etc/passwd"));
+		assertThatIllegalArgumentException().isThrownBy(() -> store.resolve(PictureStore.INCOMING + "/upload"));
+		assertThat(store.resolve("legacy-picture.png")).isEqualTo(root.resolve("legacy-picture.png"));
+	}
+
+	private static Flux<DataBuffer> content(String... chunks) {
+		return Flux.fromArray(chunks).map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+	}
+}
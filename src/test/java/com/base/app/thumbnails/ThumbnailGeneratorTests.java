@@ -0,0 +1,148 @@
+package com.base.app.thumbnails;
+
+import com.base.app.documents.Product;
+import com.base.app.services.ProductService;
+import com.base.app.storage.PictureStore;
+import com.base.app.storage.StoredPicture;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ThumbnailGeneratorTests {
+
+	private final PictureStore store = new PictureStore();
+
+	private final ThumbnailGenerator generator = new ThumbnailGenerator();
+
+	private final ThumbnailJournal journal = new ThumbnailJournal();
+
+	private final ProductService service = mock(ProductService.class);
+
+	@TempDir
+	Path root;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(store, "path", root.toString());
+		store.init();
+		ReflectionTestUtils.setField(generator, "store", store);
+		ReflectionTestUtils.setField(journal, "path", root.toString());
+		journal.init();
+		ReflectionTestUtils.setField(generator, "service", service);
+		ReflectionTestUtils.setField(generator, "journal", journal);
+		ReflectionTestUtils.setField(generator, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(generator, "sizes", new int[]{160, 480});
+		ReflectionTestUtils.setField(generator, "jpegQuality", 0.85f);
+		generator.start();
+	}
+
+	@Test
+	void writesScaledVariantsNextToTheOriginal() throws Exception {
+		StoredPicture picture = store(image(1200, 600, BufferedImage.TYPE_INT_RGB, "png"));
+
+		Map<String, String> variants = generator.generate(new ThumbnailJob("p1", picture.picture()));
+
+		assertThat(variants).containsOnlyKeys("160", "480");
+		assertThat(variants.get("160")).isEqualTo(store.variant(picture.picture(), 160, "jpg"));
+		BufferedImage thumbnail = ImageIO.read(store.resolve(variants.get("160")).toFile());
+		assertThat(thumbnail.getWidth()).isEqualTo(160);
+		assertThat(thumbnail.getHeight()).isEqualTo(80);
+		assertThat(store.isVariant(variants.get("480"))).isTrue();
+	}
+
+	@Test
+	void reusesExistingVariantsAndNeverUpscales() throws Exception {
+		StoredPicture picture = store(image(300, 200, BufferedImage.TYPE_INT_ARGB, "png"));
+		ThumbnailJob job = new ThumbnailJob("p1", picture.picture());
+
+		Map<String, String> first = generator.generate(job);
+		Path variant = store.resolve(first.get("160"));
+		FileTime written = FileTime.fromMillis(1_000_000L);
+		Files.setLastModifiedTime(variant, written);
+		Map<String, String> second = generator.generate(job);
+
+		assertThat(second).isEqualTo(first);
+		assertThat(first.get("160")).endsWith("@160.png");
+		assertThat(first.get("480")).isEqualTo(picture.picture());
+		assertThat(Files.getLastModifiedTime(variant)).isEqualTo(written);
+	}
+
+	@Test
+	void rejectsContentThatIsNotAnImage() {
+		StoredPicture picture = store("not an image".getBytes());
+
+		assertThatExceptionOfType(UnsupportedImageException.class)
+		.isThrownBy(() -> generator.generate(new ThumbnailJob("p1", picture.picture())));
+	}
+
+	@Test
+	void keepsTheJobWhenTheProductStillShowsThePicture() throws Exception {
+		StoredPicture picture = store(image(1200, 600, BufferedImage.TYPE_INT_RGB, "png"));
+		ThumbnailJob job = new ThumbnailJob("p1", picture.picture());
+		Product product = new Product();
+		product.setPicture(picture.picture());
+		when(service.updateVariants(eq("p1"), eq(picture.picture()), anyMap())).thenReturn(Mono.just(false));
+		when(service.findById("p1")).thenReturn(Mono.just(product));
+		journal.write(job).block();
+
+		generator.process(job).block();
+
+		assertThat(journal.pending().collectList().block()).containsExactly(job);
+	}
+
+	@Test
+	void dropsTheJobOnceTheProductIsGone() throws Exception {
+		StoredPicture picture = store(image(1200, 600, BufferedImage.TYPE_INT_RGB, "png"));
+		ThumbnailJob job = new ThumbnailJob("p1", picture.picture());
+		when(service.updateVariants(eq("p1"), eq(picture.picture()), anyMap())).thenReturn(Mono.just(false));
+		when(service.findById("p1")).thenReturn(Mono.empty());
+		journal.write(job).block();
+
+		generator.process(job).block();
+
+		assertThat(journal.pending().collectList().block()).isEmpty();
+	}
+
+	@Test
+	void dropsTheJobOnceVariantsAreRecorded() throws Exception {
+		StoredPicture picture = store(image(1200, 600, BufferedImage.TYPE_INT_RGB, "png"));
+		ThumbnailJob job = new ThumbnailJob("p1", picture.picture());
+		when(service.updateVariants(eq("p1"), eq(picture.picture()), anyMap())).thenReturn(Mono.just(true));
+		journal.write(job).block();
+
+		generator.process(job).block();
+
+		assertThat(journal.pending().collectList().block()).isEmpty();
+	}
+
+	private StoredPicture store(byte[] content) {
+		return store.store("picture.png", Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(content))).block();
+	}
+
+	private static byte[] image(int width, int height, int type, String format) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, type), format, out);
+		return out.toByteArray();
+	}
+}
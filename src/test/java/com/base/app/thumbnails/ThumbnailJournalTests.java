@@ -0,0 +1,47 @@
+package com.base.app.thumbnails;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThumbnailJournalTests {
+
+	private static final String PICTURE = "b9/4d/b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9.png";
+
+	private final ThumbnailJournal journal = new ThumbnailJournal();
+
+	@TempDir
+	Path root;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(journal, "path", root.toString());
+		journal.init();
+	}
+
+	@Test
+	void keepsJobsUntilTheyAreDeleted() throws Exception {
+		ThumbnailJob job = new ThumbnailJob("65b0c1f2a1b2c3d4e5f60718", PICTURE);
+		journal.write(job).block();
+		journal.write(job).block();
+
+		assertThat(journal.pending().collectList().block()).containsExactly(job);
+		try (var files = Files.list(root.resolve(ThumbnailJournal.JOBS))) {
+			assertThat(files).hasSize(1);
+		}
+
+		journal.delete(job).block();
+		assertThat(journal.pending().collectList().block()).isEmpty();
+	}
+
+	@Test
+	void startsEmptyWithoutAJournalDirectory() {
+		assertThat(journal.pending().collectList().block()).isEmpty();
+	}
+}
@@ -0,0 +1,53 @@
+package com.base.app.tracing;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracesTests {
+
+	@Test
+	void recordsNamedStagesOfTheTraceInContext() {
+		RequestTrace trace = new RequestTrace("POST", "/api/v2/products");
+
+		Mono<String> pipeline = Traces.stage("parse", Mono.just("body"))
+		.flatMap(body -> Traces.stage("db.write", Mono.delay(Duration.ofMillis(20)).thenReturn(body)))
+		.contextWrite(context -> context.put(RequestTrace.class, trace));
+
+		StepVerifier.create(pipeline).expectNext("body").verifyComplete();
+
+		assertThat(trace.getSpans()).extracting(RequestTrace.Span::name).containsExactly("parse", "db.write");
+		assertThat(trace.getSpans().get(1).durationMs()).isGreaterThanOrEqualTo(20);
+	}
+
+	@Test
+	void passesThroughWithoutTrace() {
+		StepVerifier.create(Traces.stage("parse", Mono.just("body"))).expectNext("body").verifyComplete();
+	}
+
+	@Test
+	void recorderKeepsMostRecentSlowTraces() {
+		SlowTraceRecorder recorder = new SlowTraceRecorder(Duration.ZERO, 2);
+		for (String path : new String[]{"/a", "/b", "/c"}) {
+			RequestTrace trace = new RequestTrace("GET", path);
+			trace.complete(path, 200);
+			recorder.complete(trace);
+		}
+
+		assertThat(recorder.recent()).extracting(RequestTrace::getPath).containsExactly("/c", "/b");
+	}
+
+	@Test
+	void recorderSkipsFastTraces() {
+		SlowTraceRecorder recorder = new SlowTraceRecorder(Duration.ofMinutes(1), 2);
+		RequestTrace trace = new RequestTrace("GET", "/a");
+		trace.complete("/a", 200);
+		recorder.complete(trace);
+
+		assertThat(recorder.recent()).isEmpty();
+	}
+}
@@ -0,0 +1,93 @@
+package com.base.app.uploads;
+
+import com.base.app.storage.PictureCollector;
+import com.base.app.storage.PictureStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.FormPartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class MultipartUploadReaderTests {
+
+	private final MultipartUploadReader reader = new MultipartUploadReader();
+
+	@TempDir
+	Path uploads;
+
+	@BeforeEach
+	void setUp() {
+		PictureStore store = new PictureStore();
+		ReflectionTestUtils.setField(store, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(store, "path", uploads.toString());
+		store.init();
+		ReflectionTestUtils.setField(reader, "pictureStore", store);
+		ReflectionTestUtils.setField(reader, "pictureCollector", mock(PictureCollector.class));
+		ReflectionTestUtils.setField(reader, "maxFileSize", DataSize.ofBytes(16));
+	}
+
+	@Test
+	void streamsTheFileAndKeepsFieldsOnEitherSide() throws Exception {
+		Flux<PartEvent> events = Flux.concat(
+		FormPartEvent.create("name", "Sony Notebook"),
+		FilePartEvent.create("file", "my pic:1.png", MediaType.IMAGE_PNG, Flux.just(buffer("0123456789"), buffer("abc"))),
+		FormPartEvent.create("price", "846.89"));
+
+		StepVerifier.create(reader.read(events))
+		.assertNext(upload -> {
+			assertThat(upload.getField("name")).isEqualTo("Sony Notebook");
+			assertThat(upload.getDoubleField("price")).isEqualTo(846.89);
+			assertThat(upload.getPicture()).matches("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.png");
+			assertThat(upload.getSize()).isEqualTo(13);
+			assertThat(upload.getFile()).hasContent("0123456789abc");
+		})
+		.verifyComplete();
+	}
+
+	@Test
+	void rejectsOversizedFilesAndRemovesThePartialWrite() throws Exception {
+		Flux<PartEvent> events = Flux.concat(
+		FilePartEvent.create("file", "big.png", MediaType.IMAGE_PNG, Flux.just(buffer("0123456789"), buffer("0123456789"))),
+		FormPartEvent.create("name", "Sony Notebook"));
+
+		StepVerifier.create(reader.read(events))
+		.expectError(UploadTooLargeException.class)
+		.verify();
+		try (var files = Files.walk(uploads)) {
+			assertThat(files.filter(Files::isRegularFile)).isEmpty();
+		}
+	}
+
+	@Test
+	void readsFieldOnlyRequestsWithoutTouchingTheDisk() throws Exception {
+		StepVerifier.create(reader.read(Flux.concat(FormPartEvent.create("name", "Sony Notebook"))))
+		.assertNext(upload -> {
+			assertThat(upload.hasFile()).isFalse();
+			assertThat(upload.getField("name")).isEqualTo("Sony Notebook");
+		})
+		.verifyComplete();
+		try (var files = Files.list(uploads)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	private static DataBuffer buffer(String value) {
+		return DefaultDataBufferFactory.sharedInstance.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,72 @@
+package com.base.app.uploads;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadLimiterTests {
+
+	private final UploadLimiter limiter = new UploadLimiter();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(limiter, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(limiter, "maxConcurrent", 1);
+		ReflectionTestUtils.setField(limiter, "maxQueued", 1);
+		limiter.init();
+	}
+
+	@Test
+	void rejectsWhenRunningAndQueuedSlotsAreTaken() {
+		Sinks.One<String> running = Sinks.one();
+		Sinks.One<String> queued = Sinks.one();
+		Disposable first = limiter.limit(running.asMono()).subscribe();
+		Disposable second = limiter.limit(queued.asMono()).subscribe();
+
+		StepVerifier.create(limiter.limit(Mono.just("third")))
+		.expectError(UploadRejectedException.class)
+		.verify();
+		assertThat(limiter.active()).isEqualTo(1);
+		assertThat(limiter.queued()).isEqualTo(1);
+
+		first.dispose();
+		second.dispose();
+	}
+
+	@Test
+	void handsThePermitToTheNextWaiterOnCompletion() {
+		Sinks.One<String> running = Sinks.one();
+		limiter.limit(running.asMono()).subscribe();
+		Mono<String> waiting = limiter.limit(Mono.just("second"));
+
+		StepVerifier.create(waiting)
+		.then(() -> running.tryEmitValue("first"))
+		.expectNext("second")
+		.verifyComplete();
+		assertThat(limiter.active()).isZero();
+		assertThat(limiter.queued()).isZero();
+	}
+
+	@Test
+	void releasesPermitsOfCancelledUploads() {
+		Disposable running = limiter.limit(Sinks.<String>one().asMono()).subscribe();
+		Disposable waiting = limiter.limit(Sinks.<String>one().asMono()).subscribe();
+		assertThat(limiter.queued()).isEqualTo(1);
+
+		waiting.dispose();
+		assertThat(limiter.queued()).isZero();
+		running.dispose();
+		assertThat(limiter.active()).isZero();
+
+		StepVerifier.create(limiter.limit(Mono.just("next")))
+		.expectNext("next")
+		.verifyComplete();
+	}
+}
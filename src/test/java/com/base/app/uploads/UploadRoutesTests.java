@@ -0,0 +1,113 @@
+package com.base.app.uploads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Sinks;
+
+import java.io.File;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"config.seed.mode=none", "config.uploads.path=${java.io.tmpdir}/", "config.uploads.max-file-size=1KB",
+"config.uploads.max-concurrent=1", "config.uploads.max-queued=0"})
+@AutoConfigureWebTestClient
+@ActiveProfiles("inmemory")
+class UploadRoutesTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private UploadLimiter uploadLimiter;
+
+	@Test
+	void createsProductsFromStreamedUploads() {
+		client.post().uri("/api/v2/products/create/v2")
+		.bodyValue(form(new byte[512]).build())
+		.exchange()
+		.expectStatus().isCreated()
+		.expectBody()
+		.jsonPath("$.product.name").isEqualTo("Sony Notebook")
+		.jsonPath("$.product.picture").value(picture -> assertThat(new File(System.getProperty("java.io.tmpdir"), picture.toString())).exists().hasSize(512));
+	}
+
+	@Test
+	void rejectsOversizedFilesWith413() {
+		client.post().uri("/api/v2/products/create")
+		.bodyValue(form(new byte[4096]).build())
+		.exchange()
+		.expectStatus().isEqualTo(413)
+		.expectBody()
+		.jsonPath("$.status").isEqualTo(413);
+	}
+
+	@Test
+	void rejectsOversizedFilesWith413OnTheAnnotatedRoutes() {
+		client.post().uri("/api/products/v2")
+		.bodyValue(form(new byte[4096]).build())
+		.exchange()
+		.expectStatus().isEqualTo(413)
+		.expectBody()
+		.jsonPath("$.status").isEqualTo(413)
+		.jsonPath("$.errors").isNotEmpty();
+	}
+
+	@Test
+	void rejectsUploadsOverTheLimitWith503OnTheAnnotatedRoutes() {
+		Disposable running = uploadLimiter.limit(Sinks.one().asMono()).subscribe();
+		try {
+			client.post().uri("/api/products/v2")
+			.bodyValue(form(new byte[512]).build())
+			.exchange()
+			.expectStatus().isEqualTo(503)
+			.expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+			.expectBody()
+			.jsonPath("$.status").isEqualTo(503);
+		} finally {
+			running.dispose();
+		}
+		assertThat(uploadLimiter.active()).isZero();
+	}
+
+	@Test
+	void releasesThePictureOfDeletedProducts() {
+		Map<?, ?> created = client.post().uri("/api/v2/products/create/v2")
+		.bodyValue(form("deleted".getBytes()).build())
+		.exchange()
+		.expectStatus().isCreated()
+		.expectBody(Map.class)
+		.returnResult()
+		.getResponseBody();
+		String id = (String) ((Map<?, ?>) created.get("product")).get("id");
+		double candidates = meterRegistry.get("pictures.gc.candidates").gauge().value();
+
+		client.delete().uri("/api/v2/products/" + id)
+		.exchange()
+		.expectStatus().isNoContent();
+
+		assertThat(meterRegistry.get("pictures.gc.candidates").gauge().value()).isEqualTo(candidates + 1);
+	}
+
+	private static MultipartBodyBuilder form(byte[] picture) {
+		MultipartBodyBuilder builder = new MultipartBodyBuilder();
+		builder.part("name", "Sony Notebook");
+		builder.part("price", "846.89");
+		builder.part("category.id", "c1");
+		builder.part("category.name", "computation");
+		builder.part("file", new ByteArrayResource(picture)).filename("picture.png");
+		return builder;
+	}
+}
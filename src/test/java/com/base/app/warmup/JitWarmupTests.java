@@ -0,0 +1,28 @@
+package com.base.app.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+class JitWarmupTests {
+
+	@Test
+	void drivesTrafficThroughSandboxWithoutFailures(CapturedOutput output) {
+		JitWarmup warmup = new JitWarmup();
+		ReflectionTestUtils.setField(warmup, "enabled", true);
+		ReflectionTestUtils.setField(warmup, "iterations", 240);
+		ReflectionTestUtils.setField(warmup, "timeBudget", Duration.ofSeconds(30));
+		ReflectionTestUtils.setField(warmup, "concurrency", 4);
+
+		warmup.run();
+
+		assertThat(output).contains("Warm-up finished: 240 requests (0 failed)");
+	}
+}